@@ -1,171 +1,135 @@
 package com.project.back_end.DTO;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-
-public class AppointmentDTO {
-    private Long id;
-    private Long doctorId;
-    private String doctorName;
-    private Long patientId;
-    private String patientName;
-    private String patientEmail;
-    private String patientPhone;
-    private String patientAddress;
-    private java.time.LocalDateTime appointmentTime;
-    private int status;
-
-    public Long getId() {
-        return id;
-    }
-    public Long getDoctorId() {
-        return doctorId;
-    }
-    public String getDoctorName() {
-        return doctorName;
-    }
-    public Long getPatientId() {
-        return patientId;
-    }
-    public String getPatientName() {
-        return patientName;
-    }
-    public String getPatientEmail() {
-        return patientEmail;
-    }
-    public String getPatientPhone() {
-        return patientPhone;
-    }
-    public String getPatientAddress() {
-        return patientAddress;
-    }
-    public java.time.LocalDateTime getAppointmentTime() {
-        return appointmentTime;
-    }
-    public int getStatus() {
-        return status;
-    }
-    public java.time.LocalDate getAppointmentDate() {
-        return appointmentTime.toLocalDate();
-    }
-    public java.time.LocalTime getAppointmentTimeOnly() {
-        return appointmentTime.toLocalTime();
-    }
-    public java.time.LocalDateTime getEndTime() {
-        return appointmentTime.plusHours(1);
-    }
-        public AppointmentDTO(Long id, Long doctorId, Long patientId, LocalDateTime appointmentTime, int status) {
-        this.id = id;
-        this.doctorId = doctorId;
-        this.patientId = patientId;
-        this.appointmentTime = appointmentTime;
-        this.status = status;
-        // Standardwerte für fehlende Felder
-        this.doctorName = "Unknown";
-        this.patientName = "Unknown";
-        this.patientEmail = "Unknown";
-        this.patientPhone = "Unknown";
-        this.patientAddress = "Unknown";
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import com.project.back_end.models.Doctor;
+
+// Unveränderlicher Lesedatensatz. Wird direkt aus JPQL-Konstruktorausdrücken (SELECT new ...) befüllt, also ohne
+// Entities, Persistence-Context-Snapshots und Nachladen von Arzt oder Patient je Zeile.
+public record AppointmentDTO(
+        @JsonView(Views.Compact.class) Long id,
+        Long doctorId,
+        @JsonView(Views.Compact.class) String doctorName,
+        Long patientId,
+        @JsonView(Views.Compact.class) String patientName,
+        String patientEmail,
+        String patientPhone,
+        String patientAddress,
+        @JsonView(Views.Compact.class) LocalDateTime appointmentTime,
+        @JsonView(Views.Compact.class) int status,
+        // Abgeleitete Werte einmal beim Erzeugen statt bei jeder Serialisierung berechnen
+        LocalDate appointmentDate,
+        LocalTime appointmentTimeOnly,
+        LocalDateTime endTime) {
+
+    // Konstruktor für die Projektionsabfragen im AppointmentRepository; das Ende ergibt sich wie bei
+    // Appointment.getEndTime aus der Slotlänge des Arztes (d.slotMinutes, ohne Angabe 60 Minuten)
+    public AppointmentDTO(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+                          String patientEmail, String patientPhone, String patientAddress,
+                          LocalDateTime appointmentTime, int status, Integer slotMinutes) {
+        this(id, doctorId, doctorName, patientId, patientName, patientEmail, patientPhone, patientAddress,
+                appointmentTime, status,
+                appointmentTime != null ? appointmentTime.toLocalDate() : null,
+                appointmentTime != null ? appointmentTime.toLocalTime() : null,
+                appointmentTime != null ? appointmentTime.plusMinutes(
+                        slotMinutes != null ? slotMinutes : Doctor.DEFAULT_SLOT_MINUTES) : null);
     }
+
     public AppointmentDTO(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
                           String patientEmail, String patientPhone, String patientAddress,
-                          java.time.LocalDateTime appointmentTime, int status) {
-        this.id = id;
-        this.doctorId = doctorId;
-        this.doctorName = doctorName;
-        this.patientId = patientId;
-        this.patientName = patientName;
-        this.patientEmail = patientEmail;
-        this.patientPhone = patientPhone;
-        this.patientAddress = patientAddress;
-        this.appointmentTime = appointmentTime;
-        this.status = status;
+                          LocalDateTime appointmentTime, int status) {
+        this(id, doctorId, doctorName, patientId, patientName, patientEmail, patientPhone, patientAddress,
+                appointmentTime, status, null);
     }
 
 
 // 1. 'id' field:
-//    - Type: private Long
+//    - Type: Long
 //    - Description:
 //      - Represents the unique identifier for the appointment.
 //      - This is the primary key for identifying the appointment in the system.
 
 // 2. 'doctorId' field:
-//    - Type: private Long
+//    - Type: Long
 //    - Description:
 //      - Represents the ID of the doctor associated with the appointment.
 //      - This is a simplified field, capturing only the ID of the doctor (not the full Doctor object).
 
 // 3. 'doctorName' field:
-//    - Type: private String
+//    - Type: String
 //    - Description:
 //      - Represents the name of the doctor associated with the appointment.
 //      - This is a simplified field for displaying the doctor's name.
 
 // 4. 'patientId' field:
-//    - Type: private Long
+//    - Type: Long
 //    - Description:
 //      - Represents the ID of the patient associated with the appointment.
 //      - This is a simplified field, capturing only the ID of the patient (not the full Patient object).
 
 // 5. 'patientName' field:
-//    - Type: private String
+//    - Type: String
 //    - Description:
 //      - Represents the name of the patient associated with the appointment.
 //      - This is a simplified field for displaying the patient's name.
 
 // 6. 'patientEmail' field:
-//    - Type: private String
+//    - Type: String
 //    - Description:
 //      - Represents the email of the patient associated with the appointment.
 //      - This is a simplified field for displaying the patient's email.
 
 // 7. 'patientPhone' field:
-//    - Type: private String
+//    - Type: String
 //    - Description:
 //      - Represents the phone number of the patient associated with the appointment.
 //      - This is a simplified field for displaying the patient's phone number.
 
 // 8. 'patientAddress' field:
-//    - Type: private String
+//    - Type: String
 //    - Description:
 //      - Represents the address of the patient associated with the appointment.
 //      - This is a simplified field for displaying the patient's address.
 
 // 9. 'appointmentTime' field:
-//    - Type: private LocalDateTime
+//    - Type: LocalDateTime
 //    - Description:
 //      - Represents the scheduled date and time of the appointment.
 //      - The time when the appointment is supposed to happen, stored as a LocalDateTime object.
 
 // 10. 'status' field:
-//    - Type: private int
+//    - Type: int
 //    - Description:
 //      - Represents the status of the appointment.
 //      - Status can indicate if the appointment is "Scheduled:0", "Completed:1", or other statuses (e.g., "Canceled") as needed.
 
 // 11. 'appointmentDate' field (Custom Getter):
-//    - Type: private LocalDate
+//    - Type: LocalDate
 //    - Description:
 //      - A derived field representing only the date part of the appointment (without the time).
 //      - Extracted from the 'appointmentTime' field.
 
 // 12. 'appointmentTimeOnly' field (Custom Getter):
-//    - Type: private LocalTime
+//    - Type: LocalTime
 //    - Description:
 //      - A derived field representing only the time part of the appointment (without the date).
 //      - Extracted from the 'appointmentTime' field.
 
 // 13. 'endTime' field (Custom Getter):
-//    - Type: private LocalDateTime
+//    - Type: LocalDateTime
 //    - Description:
 //      - A derived field representing the end time of the appointment.
-//      - Calculated by adding 1 hour to the 'appointmentTime' field.
+//      - Calculated by adding the doctor's slot length (default 1 hour) to the 'appointmentTime' field.
 
 // 14. Constructor:
 //    - The constructor accepts all the relevant fields for the AppointmentDTO, including simplified fields for the doctor and patient (ID, name, etc.).
 //    - It also calculates custom fields: 'appointmentDate', 'appointmentTimeOnly', and 'endTime' based on the 'appointmentTime' field.
 
-// 15. Getters:
-//    - Standard getter methods are provided for all fields: id, doctorId, doctorName, patientId, patientName, patientEmail, patientPhone, patientAddress, appointmentTime, status, appointmentDate, appointmentTimeOnly, and endTime.
+// 15. Accessors:
+//    - As a record, accessor methods are generated for all fields: id, doctorId, doctorName, patientId, patientName, patientEmail, patientPhone, patientAddress, appointmentTime, status, appointmentDate, appointmentTimeOnly, and endTime.
 //    - These methods allow access to the values of the fields in the AppointmentDTO object.
 
 }
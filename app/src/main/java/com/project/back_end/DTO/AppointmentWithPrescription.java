@@ -0,0 +1,13 @@
+package com.project.back_end.DTO;
+
+import com.project.back_end.models.Prescription;
+
+// Zeile des Arzt-Dashboards: Termin aus MySQL plus Rezept aus Mongo. 'prescriptionStatus' unterscheidet
+// "kein Rezept" (NONE) von "Mongo hat nicht rechtzeitig geantwortet" (UNKNOWN).
+public record AppointmentWithPrescription(AppointmentDTO appointment, Prescription prescription,
+                                          String prescriptionStatus) {
+
+    public static final String PRESENT = "PRESENT";
+    public static final String NONE = "NONE";
+    public static final String UNKNOWN = "UNKNOWN";
+}
@@ -0,0 +1,30 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+public class AvailableSlotDTO {
+    private Long doctorId;
+    private String doctorName;
+    private String specialty;
+    private LocalDateTime slotTime;
+
+    public AvailableSlotDTO(Long doctorId, String doctorName, String specialty, LocalDateTime slotTime) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialty = specialty;
+        this.slotTime = slotTime;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    public String getDoctorName() {
+        return doctorName;
+    }
+    public String getSpecialty() {
+        return specialty;
+    }
+    public LocalDateTime getSlotTime() {
+        return slotTime;
+    }
+}
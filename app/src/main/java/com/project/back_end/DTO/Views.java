@@ -0,0 +1,24 @@
+package com.project.back_end.DTO;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+// Jackson-Views für Listenendpunkte: mit ?view=compact werden nur die mit @JsonView(Views.Compact.class)
+// markierten Felder geschrieben (Name, Zeit, Status), ohne Parameter bleibt die Antwort vollständig.
+public class Views {
+
+    public interface Compact {
+    }
+
+    private Views() {
+    }
+
+    // Body unverändert oder – bei view=compact – mit aktivem Compact-View zurückgeben
+    public static Object select(Object body, String view) {
+        if (!"compact".equalsIgnoreCase(view)) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setSerializationView(Compact.class);
+        return value;
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// JWT des Aufrufers: bevorzugt aus "Authorization: Bearer <token>", sonst aus der alten {token}-Pfadvariable
+// (veraltete Routen, Antwort erhält dann einen Deprecation-Header). Siehe AuthTokenArgumentResolver.
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuthToken {
+}
@@ -0,0 +1,123 @@
+package com.project.back_end.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Optionaler Regler für die Poolgröße (datasource.pool.adaptive.enabled=true). Vergleicht pro Intervall die mittlere
+// Wartezeit auf eine Verbindung (hikaricp.connections.acquire) mit der mittleren Haltedauer (hikaricp.connections.usage,
+// also Abfragezeit plus Transaktionsoverhead): Warten Threads länger als die halbe Haltedauer, fehlen Verbindungen und
+// der Pool wächst; wartet praktisch niemand und liegen Verbindungen brach, schrumpft er wieder. Immer innerhalb von
+// min/max – mehr Verbindungen als die Datenbank verträgt, machen Abfragen nur langsamer. Das Lese-Replikat ist ein
+// eigener Server mit eigenem Budget und hat deshalb eigene Grenzen (datasource.pool.adaptive.replica.*).
+@Component
+@ConditionalOnProperty(name = "datasource.pool.adaptive.enabled", havingValue = "true")
+public class HikariPoolTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariPoolTuner.class);
+
+    static final double GROW_RATIO = 0.5;
+    static final double SHRINK_RATIO = 0.05;
+
+    private final List<HikariDataSource> pools;
+    private final MeterRegistry meterRegistry;
+    private final Limits primaryLimits;
+    private final Limits replicaLimits;
+    private final int step;
+    private final Map<String, Sample> lastSamples = new HashMap<>();
+
+    public HikariPoolTuner(List<HikariDataSource> pools,
+                           MeterRegistry meterRegistry,
+                           @Value("${datasource.pool.adaptive.min:5}") int minSize,
+                           @Value("${datasource.pool.adaptive.max:20}") int maxSize,
+                           @Value("${datasource.pool.adaptive.replica.min:${datasource.pool.adaptive.min:5}}")
+                           int replicaMinSize,
+                           @Value("${datasource.pool.adaptive.replica.max:${datasource.pool.adaptive.max:20}}")
+                           int replicaMaxSize,
+                           @Value("${datasource.pool.adaptive.step:2}") int step) {
+        this.pools = pools;
+        this.meterRegistry = meterRegistry;
+        this.primaryLimits = new Limits(minSize, maxSize);
+        this.replicaLimits = new Limits(replicaMinSize, replicaMaxSize);
+        this.step = step;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.pool.adaptive.interval-ms:30000}")
+    public synchronized void tune() {
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean == null) {
+                continue; // Pool noch nicht gestartet
+            }
+            Sample now = sample(pool.getPoolName());
+            Sample last = lastSamples.put(pool.getPoolName(), now);
+            if (last == null) {
+                continue;
+            }
+            int current = pool.getMaximumPoolSize();
+            Limits limits = limitsFor(pool.getPoolName());
+            int next = nextSize(current, limits.min(), limits.max(), step,
+                    now.acquireMeanMillis(last), now.usageMeanMillis(last),
+                    mxBean.getThreadsAwaitingConnection(), mxBean.getIdleConnections());
+            if (next != current) {
+                log.info("Pool {}: maximumPoolSize {} -> {}", pool.getPoolName(), current, next);
+                pool.getHikariConfigMXBean().setMaximumPoolSize(next);
+            }
+        }
+    }
+
+    // Ohne Replikat gibt es nur den Pool von Spring Boot, er gilt als primär
+    Limits limitsFor(String poolName) {
+        return ReplicaDataSourceConfig.REPLICA_POOL.equals(poolName) ? replicaLimits : primaryLimits;
+    }
+
+    static int nextSize(int current, int min, int max, int step,
+                        double acquireMillis, double usageMillis, int pending, int idle) {
+        if (pending > 0 && acquireMillis > usageMillis * GROW_RATIO) {
+            return Math.min(max, Math.max(min, current + step));
+        }
+        if (pending == 0 && idle > step && acquireMillis <= usageMillis * SHRINK_RATIO) {
+            return Math.max(min, Math.min(max, current - 1));
+        }
+        return Math.max(min, Math.min(max, current));
+    }
+
+    private Sample sample(String poolName) {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", poolName).timer();
+        return new Sample(
+                acquire != null ? acquire.count() : 0, acquire != null ? acquire.totalTime(TimeUnit.MILLISECONDS) : 0,
+                usage != null ? usage.count() : 0, usage != null ? usage.totalTime(TimeUnit.MILLISECONDS) : 0);
+    }
+
+    record Limits(int min, int max) {
+    }
+
+    // Kumulierte Timerstände; die Differenz zweier Stichproben ergibt den Mittelwert des Intervalls
+    private record Sample(long acquireCount, double acquireMillis, long usageCount, double usageMillis) {
+
+        double acquireMeanMillis(Sample previous) {
+            long count = acquireCount - previous.acquireCount;
+            return count > 0 ? (acquireMillis - previous.acquireMillis) / count : 0;
+        }
+
+        double usageMeanMillis(Sample previous) {
+            long count = usageCount - previous.usageCount;
+            return count > 0 ? (usageMillis - previous.usageMillis) / count : 0;
+        }
+    }
+}
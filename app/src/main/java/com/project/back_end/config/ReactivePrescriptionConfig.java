@@ -0,0 +1,51 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+
+// Nur aktiv mit prescription.reactive.enabled=true. Die reaktiven Auto-Konfigurationen von Spring Boot sind in
+// application.properties ausgeschlossen, damit ohne diesen Schalter kein zweiter Mongo-Client mitläuft. Client und
+// Template entstehen dann hier, aus denselben Einstellungen und demselben Mapping wie der blockierende Pfad.
+@Configuration
+@ConditionalOnProperty(name = "prescription.reactive.enabled", havingValue = "true")
+@EnableReactiveMongoRepositories(basePackageClasses = ReactivePrescriptionRepository.class,
+        reactiveMongoTemplateRef = "reactiveMongoTemplate")
+public class ReactivePrescriptionConfig {
+
+    // Wie Boots MongoReactiveAutoConfiguration: dieselben MongoClientSettings und alle
+    // MongoClientSettingsBuilderCustomizer (Verbindungsdaten, SSL, Pool-Größen usw.) wie beim blockierenden Client
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(ObjectProvider<MongoClientSettingsBuilderCustomizer> builderCustomizers,
+                                           MongoClientSettings settings) {
+        return new ReactiveMongoClientFactory(builderCustomizers.orderedStream().toList()).createMongoClient(settings);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties,
+                                                       MongoMappingContext mappingContext,
+                                                       MongoCustomConversions conversions) {
+        // Reaktiv gibt es keine DBRef-Auflösung; die Dokumente hier brauchen keine
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new ReactiveMongoTemplate(
+                new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient, properties.getMongoClientDatabase()),
+                converter);
+    }
+}
@@ -0,0 +1,68 @@
+package com.project.back_end.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Verbindungen aus readOnly-Transaktionen gehen an das Replikat, alles andere (und Zugriffe ohne Transaktion) an
+// den Primärserver. Funktioniert nur hinter einem LazyConnectionDataSourceProxy: erst dann wird die Verbindung
+// beim ersten Statement geholt, wenn das readOnly-Flag der Transaktion schon gesetzt ist.
+// Ausnahme sind Lesezugriffe über onPrimary(): Listen, die unter einem ETag aus ResourceVersions ausgeliefert werden,
+// lesen vom Primärserver. Die Version wird dort mit dem Commit erhöht; ein nachlaufendes Replikat könnte sonst alte
+// Zeilen unter dem neuen ETag liefern, die der Client danach per 304 weiterverwendet. Ebenso die Terminlisten des
+// Patienten (PatientController): er liest sie typischerweise direkt nach der eigenen Buchung oder Absage. Und der
+// Neuaufbau der Patientenakten (PatientRecordService), der sich mit den laufenden Outbox-Ereignissen abgleicht.
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        this.primaryConnections = Counter.builder("datasource.routed.connections")
+                .description("Vergebene Verbindungen je Ziel")
+                .tag("target", PRIMARY)
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("datasource.routed.connections")
+                .description("Vergebene Verbindungen je Ziel")
+                .tag("target", REPLICA)
+                .register(meterRegistry);
+    }
+
+    // Gilt für alle Transaktionen im Aufruf auf diesem Thread; typischerweise um den Serviceaufruf im Controller
+    public static <T> T onPrimary(Supplier<T> query) {
+        boolean outer = PRIMARY_READS.get() == null;
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return query.get();
+        } finally {
+            if (outer) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_READS.get() == null) {
+            replicaConnections.increment();
+            return REPLICA;
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+}
@@ -1,9 +1,11 @@
 package com.project.back_end.config;
 
 
+import java.util.List;
+
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull; 
-
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,6 +18,13 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/**")
                 .allowedOrigins("*")  // Add your frontend URL here
                 .allowedMethods("GET", "POST", "PUT", "DELETE")  // Specify allowed methods
-                .allowedHeaders("*");  // You can restrict headers if needed
+                .allowedHeaders("*")  // You can restrict headers if needed
+                .exposedHeaders("Deprecation", "ETag");
+    }
+
+    // @AuthToken-Parameter: Token aus dem Authorization-Header, ersatzweise aus der alten Pfadvariable
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new AuthTokenArgumentResolver());
     }
 }
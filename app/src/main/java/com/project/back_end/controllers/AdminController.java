@@ -1,24 +1,48 @@
 
 package com.project.back_end.controllers;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.AuthToken;
+import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.MvcService;
+import com.project.back_end.services.OutboxService;
+import com.project.back_end.services.PatientRecordService;
+import com.project.back_end.services.PrescriptionExportService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("${api.path}admin")
 public class AdminController {
     private final MvcService service;
+    private final DoctorService doctorService;
+    private final PatientRecordService patientRecordService;
+    private final PrescriptionExportService prescriptionExportService;
+    private final OutboxService outboxService;
 
-    public AdminController(MvcService service) {
+    public AdminController(MvcService service, DoctorService doctorService, PatientRecordService patientRecordService,
+                           PrescriptionExportService prescriptionExportService, OutboxService outboxService) {
         this.service = service;
+        this.doctorService = doctorService;
+        this.patientRecordService = patientRecordService;
+        this.prescriptionExportService = prescriptionExportService;
+        this.outboxService = outboxService;
     }
 
     @PostMapping("/login")
@@ -51,6 +75,7 @@ public class AdminController {
                     "success", true,
                     "message", "Login successful.",
                     "token", result.get("token"),
+                    "refreshToken", result.get("refreshToken"),
                     "claims", result.get("claims")
                 )
             );
@@ -64,6 +89,99 @@ public class AdminController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        return service.refreshToken(body.get("refreshToken"), "ADMIN");
+    }
+
+    // Mehrere Ärzte auf einmal löschen; Antwort enthält die Zahl gelöschter Ärzte und Termine
+    @PostMapping({"/doctors/delete/{token}", "/doctors/delete"})
+    public ResponseEntity<?> deleteDoctors(@RequestBody List<Long> doctorIds, @AuthToken String token) {
+        String error = service.validateToken(token, "admin");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", error));
+        }
+        if (doctorIds == null || doctorIds.isEmpty() || doctorIds.size() > DoctorService.MAX_BULK_DELETE) {
+            return ResponseEntity.badRequest().body(
+                Map.of("message", "Between 1 and " + DoctorService.MAX_BULK_DELETE + " doctor ids are required.")
+            );
+        }
+        return ResponseEntity.ok(doctorService.deleteDoctors(doctorIds));
+    }
+
+    // Patientenakte (Lesemodell) aus MySQL und den Rezepten neu aufbauen, z. B. für Bestandsdaten
+    @PostMapping({"/patients/{patientId}/record/rebuild/{token}", "/patients/{patientId}/record/rebuild"})
+    public ResponseEntity<?> rebuildPatientRecord(@PathVariable Long patientId, @AuthToken String token) {
+        String error = service.validateToken(token, "admin");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", error));
+        }
+        return ResponseEntity.ok(Map.of("appointments", patientRecordService.rebuild(patientId)));
+    }
+
+    // Alle Patientenakten blockweise nachziehen (Bestandsdaten, verpasste Ereignisse). Läuft im Hintergrund:
+    // 202 sofort, das Ergebnis steht im Log; 409, solange auf dieser Instanz noch ein Lauf aktiv ist
+    @PostMapping({"/patients/records/rebuild/{token}", "/patients/records/rebuild"})
+    public ResponseEntity<?> rebuildPatientRecords(@AuthToken String token) {
+        String error = service.validateToken(token, "admin");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", error));
+        }
+        if (!patientRecordService.startRebuildAll()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                Map.of("message", "A rebuild of all patient records is already running.")
+            );
+        }
+        return ResponseEntity.accepted().body(Map.of("message", "Rebuild of all patient records started."));
+    }
+
+    // Outbox-Dead-Letters wieder zustellen lassen, z. B. nachdem ein Empfänger repariert ist; ohne Body alle
+    @PostMapping({"/outbox/requeue/{token}", "/outbox/requeue"})
+    public ResponseEntity<?> requeueOutbox(@RequestBody(required = false) List<Long> eventIds,
+                                           @AuthToken String token) {
+        String error = service.validateToken(token, "admin");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", error));
+        }
+        return ResponseEntity.ok(Map.of("requeued", outboxService.requeueDeadLetters(eventIds)));
+    }
+
+    // Rezepte eines Zeitraums (Ausstellungsdatum, beide Tage eingeschlossen) als NDJSON oder CSV. Wird direkt in
+    // die Antwort geschrieben statt als StreamingResponseBody: ein Export über Millionen Rezepte dauert länger als
+    // das Async-Timeout, und der Aufruf ist selten genug, um dafür einen Servlet-Thread zu belegen. Bricht der Export
+    // nach dem ersten Block ab, bleibt es beim 200 – erkennbar an der fehlenden Schlusszeile mit der Anzahl.
+    @GetMapping({"/prescriptions/export/{token}", "/prescriptions/export"})
+    public ResponseEntity<?> exportPrescriptions(@AuthToken String token,
+                                                 @RequestParam String from,
+                                                 @RequestParam String to,
+                                                 @RequestParam(defaultValue = "ndjson") String format,
+                                                 HttpServletResponse response) throws IOException {
+        String error = service.validateToken(token, "admin");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", error));
+        }
+        LocalDate fromDate;
+        LocalDate toDate;
+        PrescriptionExportService.Format exportFormat;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+            exportFormat = PrescriptionExportService.Format.valueOf(format.toUpperCase());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(
+                Map.of("message", "Use from/to as YYYY-MM-DD and format ndjson or csv.")
+            );
+        }
+        if (toDate.isBefore(fromDate)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "'to' must not be before 'from'."));
+        }
+        response.setContentType(exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"prescriptions-" + fromDate + "-"
+                + toDate + "." + exportFormat.name().toLowerCase() + "\"");
+        prescriptionExportService.export(fromDate, toDate, exportFormat, response.getOutputStream());
+        return null;
+    }
+
 
 // 1. Set Up the Controller Class:
 //    - Annotate the class with `@RestController` to indicate that it's a REST controller, used to handle web requests and return JSON responses.
@@ -83,6 +201,12 @@ public class AdminController {
 //    - Delegates authentication logic to the `validateAdmin` method in the service layer.
 //    - Returns a `ResponseEntity` with a `Map` containing login status or messages.
 
+// 3a. Define the `refresh` Method:
+//    - Handles HTTP POST requests with a JSON body {"refreshToken": "..."}.
+//    - Exchanges a valid admin refresh token for a new short-lived access token and a new refresh token.
+//    - A refresh token can be used only once; presenting it again revokes every token of that login.
+//    - Returns 401 Unauthorized if the refresh token is unknown, expired or revoked.
+
 
 
 }
@@ -3,7 +3,11 @@ package com.project.back_end.controllers;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,11 +17,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.project.back_end.DTO.Views;
+import com.project.back_end.config.AuthToken;
+import com.project.back_end.config.ReadOnlyRoutingDataSource;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
+import com.project.back_end.services.DoctorDashboardService;
 import com.project.back_end.services.MvcService;
+import com.project.back_end.services.ResourceVersions;
 import com.project.back_end.services.TokenService;
 
 import jakarta.validation.Valid;
@@ -29,18 +40,25 @@ public class AppointmentController {
     private final AppointmentService appointmentService;
     private final MvcService service;
     private final TokenService tokenService;
+    private final ResourceVersions resourceVersions;
+    private final DoctorDashboardService doctorDashboardService;
 
-    public AppointmentController(AppointmentService appointmentService, MvcService service, TokenService tokenService) {
+    public AppointmentController(AppointmentService appointmentService, MvcService service, TokenService tokenService,
+                                 ResourceVersions resourceVersions, DoctorDashboardService doctorDashboardService) {
         this.appointmentService = appointmentService;
         this.service = service;
         this.tokenService = tokenService;
+        this.resourceVersions = resourceVersions;
+        this.doctorDashboardService = doctorDashboardService;
     }
 
-    @GetMapping("/{appointmentDate}/{patientName}/{token}")
+    @GetMapping({"/{appointmentDate}/{patientName}/{token}", "/{appointmentDate}/{patientName}"})
     public ResponseEntity<?> getAppointments(
             @PathVariable String appointmentDate,
             @PathVariable String patientName,
-            @PathVariable String token) {
+            @AuthToken String token,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
 
         // 1. Token validieren (Rolle "doctor")
         String error = service.validateToken(token, "doctor");
@@ -75,20 +93,54 @@ public class AppointmentController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid date format. Use YYYY-MM-DD.");
         }
 
-        // 4. Appointments abrufen (mit doctorId statt getUserIdFromToken)
-        return ResponseEntity.ok(
-                appointmentService.getAppointments(
+        // 4. Unverändert seit dem letzten Abruf dieses Arztes -> 304 ohne Abfrage
+        if (request.checkNotModified(resourceVersions.etag(ResourceVersions.APPOINTMENTS, doctorId))) {
+            return null;
+        }
+
+        // 5. Appointments abrufen (mit doctorId statt getUserIdFromToken), vom Primärserver wegen des ETags
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(Views.select(ReadOnlyRoutingDataSource.onPrimary(() -> appointmentService.getAppointments(
                         doctorId,  // Hier: doctorId statt service.getUserIdFromToken(token)
                         patientName,
                         date
-                )
-        );
+                )), view));
     }
 
 
-    @PostMapping("/book/{token}")
+    // Dashboard-Variante: jeder Termin mit Rezept bzw. Rezeptstatus, beide Datenquellen unter einer Frist
+    @GetMapping({"/dashboard/{appointmentDate}/{patientName}/{token}", "/dashboard/{appointmentDate}/{patientName}"})
+    public ResponseEntity<?> getDashboardAppointments(@PathVariable String appointmentDate,
+                                                      @PathVariable String patientName,
+                                                      @AuthToken String token) {
+        String error = service.validateToken(token, "doctor");
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        Long doctorId;
+        LocalDate date;
+        try {
+            doctorId = Long.parseLong(tokenService.extractClaims(token).get("doctorId"));
+            date = LocalDate.parse(appointmentDate);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid doctorId or date.");
+        }
+        try {
+            return ResponseEntity.ok(Map.of("appointments",
+                    doctorDashboardService.getAppointments(doctorId, patientName, date)));
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Appointments could not be loaded in time.");
+        } catch (RejectedExecutionException e) {
+            // Dashboard-Pool ausgelastet: Überlast, kein Serverfehler
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many dashboard requests, please retry shortly.");
+        }
+    }
+
+    @PostMapping({"/book/{token}", "/book"})
     public ResponseEntity<?> bookAppointment(@Valid @RequestBody Appointment appointment,
-                                            @PathVariable String token) {
+                                            @AuthToken String token) {
         // 1. Token validieren
         String error = service.validateToken(token, "patient");
         if (!error.isEmpty()) {
@@ -126,10 +178,10 @@ public class AppointmentController {
     }
 
 
-    @PutMapping("/update/{token}/{appointmentId}")
+    @PutMapping({"/update/{token}/{appointmentId}", "/update/{appointmentId}"})
     public ResponseEntity<String> updateAppointment(
             @Valid @RequestBody Appointment updatedAppointment,
-            @PathVariable String token,
+            @AuthToken String token,
             @PathVariable Long appointmentId) {
 
         String tokenError = service.validateToken(token, "patient");
@@ -157,9 +209,9 @@ public class AppointmentController {
 
 
 
-    @DeleteMapping("/cancel/{appointmentId}/{token}")
+    @DeleteMapping({"/cancel/{appointmentId}/{token}", "/cancel/{appointmentId}"})
     public ResponseEntity<?> cancelAppointment(@PathVariable Long appointmentId,
-                                               @PathVariable String token) {
+                                               @AuthToken String token) {
         String error = service.validateToken(token, "patient");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -194,6 +246,11 @@ public class AppointmentController {
 //    - If the token is valid, returns appointments for the given patient on the specified date.
 //    - If the token is invalid or expired, responds with the appropriate message and status code.
 
+// 3a. Define the `getDashboardAppointments` Method:
+//    - Same parameters as `getAppointments`, but every appointment carries its prescription and a `prescriptionStatus` (PRESENT, NONE, UNKNOWN).
+//    - Delegates to `DoctorDashboardService`, which loads all prescriptions with one query and enforces a deadline.
+//    - Returns 504 Gateway Timeout if the appointments themselves cannot be loaded in time.
+
 
 // 4. Define the `bookAppointment` Method:
 //    - Handles HTTP POST requests to create a new appointment.
@@ -1,8 +1,10 @@
 package com.project.back_end.controllers;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,30 +14,42 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.DTO.Views;
+import com.project.back_end.config.AuthToken;
+import com.project.back_end.config.ReadOnlyRoutingDataSource;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.MvcService;
+import com.project.back_end.services.ResourceVersions;
 
 import jakarta.validation.Valid;
 @RestController
 @RequestMapping("${api.path}doctor")
 public class DoctorController {
+    private static final int MAX_CALENDAR_DAYS = 31;
+    private static final int MAX_EARLIEST_SLOTS = 50;
+    private static final CacheControl PUBLIC_DIRECTORY_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+
     private final DoctorService doctorService;
     private final MvcService service;
+    private final ResourceVersions resourceVersions;
 
-    public DoctorController(DoctorService doctorService, MvcService service) {
+    public DoctorController(DoctorService doctorService, MvcService service, ResourceVersions resourceVersions) {
         this.doctorService = doctorService;
         this.service = service;
+        this.resourceVersions = resourceVersions;
     }
 
-    @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
+    @GetMapping({"/availability/{user}/{doctorId}/{date}/{token}", "/availability/{user}/{doctorId}/{date}"})
     public ResponseEntity<?> getDoctorAvailability(@PathVariable String user,
                                                    @PathVariable Long doctorId,
                                                    @PathVariable LocalDate date,
-                                                   @PathVariable String token) {
+                                                   @AuthToken String token) {
         String error = service.validateToken(token, user);
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -43,14 +57,64 @@ public class DoctorController {
         return ResponseEntity.ok(doctorService.getDoctorAvailability(doctorId, date));
     }
 
-    @GetMapping("/")
-    public ResponseEntity<?> getDoctor() {
-        return ResponseEntity.ok(Map.of("doctors", doctorService.getDoctors()));
+    @GetMapping({"/calendar/{user}/{doctorId}/{startDate}/{days}/{token}",
+                 "/calendar/{user}/{doctorId}/{startDate}/{days}"})
+    public ResponseEntity<?> getDoctorAvailabilityCalendar(@PathVariable String user,
+                                                           @PathVariable Long doctorId,
+                                                           @PathVariable LocalDate startDate,
+                                                           @PathVariable int days,
+                                                           @AuthToken String token) {
+        String error = service.validateToken(token, user);
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        if (days < 1 || days > MAX_CALENDAR_DAYS) {
+            return ResponseEntity.badRequest().body("Days must be between 1 and " + MAX_CALENDAR_DAYS + ".");
+        }
+        return ResponseEntity.ok(doctorService.getDoctorAvailabilityCalendar(doctorId, startDate, days));
     }
 
-    @PostMapping("/register/{token}")
+    @GetMapping({"/earliest/{user}/{name}/{speciality}/{startDate}/{days}/{limit}/{token}",
+                 "/earliest/{user}/{name}/{speciality}/{startDate}/{days}/{limit}"})
+    public ResponseEntity<?> findEarliestAvailableSlots(@PathVariable String user,
+                                                        @PathVariable String name,
+                                                        @PathVariable String speciality,
+                                                        @PathVariable LocalDate startDate,
+                                                        @PathVariable int days,
+                                                        @PathVariable int limit,
+                                                        @AuthToken String token) {
+        String error = service.validateToken(token, user);
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        if (days < 1 || days > MAX_CALENDAR_DAYS) {
+            return ResponseEntity.badRequest().body("Days must be between 1 and " + MAX_CALENDAR_DAYS + ".");
+        }
+        if (limit < 1 || limit > MAX_EARLIEST_SLOTS) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and " + MAX_EARLIEST_SLOTS + ".");
+        }
+        return ResponseEntity.ok(Map.of("slots", doctorService.findEarliestAvailableSlots(
+                "null".equals(name) ? null : name,
+                "null".equals(speciality) ? null : speciality,
+                startDate, days, limit)));
+    }
+
+    // Öffentlich und ohne Token: für Browser und CDN cachebar; unverändert -> 304 ohne Abfrage. Gelesen wird vom
+    // Primärserver, damit das ETag nie zu den Zeilen eines nachlaufenden Replikats ausgeliefert wird
+    @GetMapping({"/", ""})
+    public ResponseEntity<?> getDoctor(@RequestParam(required = false) String view, WebRequest request) {
+        if (request.checkNotModified(resourceVersions.etag(ResourceVersions.DOCTORS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PUBLIC_DIRECTORY_CACHE)
+                .body(Views.select(Map.of("doctors", ReadOnlyRoutingDataSource.onPrimary(doctorService::getDoctors)),
+                        view));
+    }
+
+    @PostMapping({"/register/{token}", "/register"})
     public ResponseEntity<?> saveDoctor(@Valid @RequestBody Doctor doctor,
-                                        @PathVariable String token) {
+                                        @AuthToken String token) {
         String error = service.validateToken(token, "admin");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -69,7 +133,7 @@ public class DoctorController {
     @PostMapping("/login")
     public ResponseEntity<Map<String, Object>> doctorLogin(@Valid @RequestBody Login login) {
         Map<String, Object> result = doctorService.validateDoctor(login.getEmail(), login.getPassword());
-        boolean success = (boolean) result.getOrDefault("success", false);
+        boolean success = "success".equals(result.get("status"));
         if (!success) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
@@ -78,9 +142,14 @@ public class DoctorController {
         return ResponseEntity.ok(result);
     }
 
-    @PutMapping("/update/{token}")
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        return service.refreshToken(body.get("refreshToken"), "DOCTOR");
+    }
+
+    @PutMapping({"/update/{token}", "/update"})
     public ResponseEntity <?> updateDoctor(@Valid @RequestBody Doctor doctor,
-                                            @PathVariable String token) {
+                                            @AuthToken String token) {
         String error = service.validateToken(token, "admin");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -95,9 +164,9 @@ public class DoctorController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
         }
     }
-    @DeleteMapping("/delete/{doctorId}/{token}")
+    @DeleteMapping({"/delete/{doctorId}/{token}", "/delete/{doctorId}"})
     public ResponseEntity<?> deleteDoctor(@PathVariable Long doctorId,
-                                          @PathVariable String token) {
+                                          @AuthToken String token) {
         String error = service.validateToken(token, "admin");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -115,10 +184,16 @@ public class DoctorController {
     @GetMapping("/filter/{name}/{time}/{speciality}")
     public ResponseEntity<?> filter(@PathVariable String name,
                                     @PathVariable String time,
-                                    @PathVariable String speciality) {
-        return ResponseEntity.ok(
-                Map.of("doctors", service.filterDoctor(name, time, speciality))
-        );
+                                    @PathVariable String speciality,
+                                    @RequestParam(required = false) String view,
+                                    WebRequest request) {
+        if (request.checkNotModified(resourceVersions.etag(ResourceVersions.DOCTORS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PUBLIC_DIRECTORY_CACHE)
+                .body(Views.select(Map.of("doctors", ReadOnlyRoutingDataSource.onPrimary(
+                        () -> service.filterDoctor(name, time, speciality))), view));
     }
     
 // 1. Set Up the Controller Class:
@@ -139,6 +214,16 @@ public class DoctorController {
 //    - If the token is invalid, returns an error response; otherwise, returns the availability status for the doctor.
 
 
+// 3a. Define the `getDoctorAvailabilityCalendar` Method:
+//    - Handles HTTP GET requests for a doctor's free slots over `days` consecutive days starting at `startDate`.
+//    - Returns a map of date to free slot start times, computed from a single appointment query.
+
+
+// 3b. Define the `findEarliestAvailableSlots` Method:
+//    - Handles HTTP GET requests for the earliest `limit` free slots across all doctors matching `name` and `speciality`.
+//    - The literal "null" disables a filter, as in the `filter` endpoint.
+
+
 // 4. Define the `getDoctor` Method:
 //    - Handles HTTP GET requests to retrieve a list of all doctors.
 //    - Returns the list within a response map under the key `"doctors"` with HTTP 200 OK status.
@@ -156,6 +241,12 @@ public class DoctorController {
 //    - Accepts a validated `Login` DTO containing credentials.
 //    - Delegates authentication to the `DoctorService` and returns login status and token information.
 
+// 6a. Define the `refresh` Method:
+//    - Handles HTTP POST requests with a JSON body {"refreshToken": "..."}.
+//    - Exchanges a valid doctor refresh token for a new short-lived access token and a new refresh token.
+//    - A refresh token can be used only once; presenting it again revokes every token of that login.
+//    - Returns 401 Unauthorized if the refresh token is unknown, expired or revoked.
+
 
 // 7. Define the `updateDoctor` Method:
 //    - Handles HTTP PUT requests to update an existing doctor's information.
@@ -1,5 +1,7 @@
 package com.project.back_end.controllers;
 
+import java.util.Map;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -7,11 +9,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project.back_end.DTO.Login;
+import com.project.back_end.config.AuthToken;
+import com.project.back_end.config.ReadOnlyRoutingDataSource;
 import com.project.back_end.models.Patient;
 import com.project.back_end.services.MvcService;
+import com.project.back_end.services.PatientRecordService;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.TokenService;
 
@@ -24,15 +30,18 @@ public class PatientController {
     private final TokenService tokenService;
     private final PatientService patientService;
     private final MvcService service;
+    private final PatientRecordService patientRecordService;
 
-    public PatientController(PatientService patientService, MvcService service, TokenService tokenService) {
+    public PatientController(PatientService patientService, MvcService service, TokenService tokenService,
+                             PatientRecordService patientRecordService) {
         this.patientService = patientService;
         this.service = service;
         this.tokenService = tokenService;
+        this.patientRecordService = patientRecordService;
     }
 
-    @GetMapping("/{token}")
-    public ResponseEntity<?> getPatient(@PathVariable String token) {
+    @GetMapping({"/{token}", ""})
+    public ResponseEntity<?> getPatient(@AuthToken String token) {
         String error = service.validateToken(token, "patient");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -46,7 +55,7 @@ public class PatientController {
         if (!service.validatePatient(patient.getEmail(), patient.getPhone())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Patient already exists.");
         } else {
-            if (patientService.createPatient(patient) != null) {
+            if (patientService.createPatient(patient) == null) {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error creating patient.");
             } else {
                 return ResponseEntity.status(HttpStatus.CREATED).body("Patient registered successfully.");
@@ -60,32 +69,62 @@ public class PatientController {
         return service.validatePatientLogin(login.getEmail(), login.getPassword());
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        return service.refreshToken(body.get("refreshToken"), "PATIENT");
+    }
+
 
-    @GetMapping("/appointments/{patientId}/{token}/{user}")
+    @GetMapping({"/appointments/{patientId}/{token}/{user}", "/appointments/{patientId}/{user}"})
     public ResponseEntity<?> getPatientAppointment(@PathVariable Long patientId,
-                                                   @PathVariable String token,
-                                                   @PathVariable String user) {
+                                                   @AuthToken String token,
+                                                   @PathVariable String user,
+                                                   @RequestParam(defaultValue = "false") boolean archived) {
         String error = service.validateToken(token, user);
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
-        return ResponseEntity.ok(
-                patientService.getPatientAppointment(patientId)
-        );
+        // ?archived=true ergänzt die archivierten Termine (ältere abgeschlossene). Vom Primärserver: der Patient soll
+        // einen eben gebuchten oder abgesagten Termin sofort sehen, auch wenn das Replikat noch nachläuft
+        return ReadOnlyRoutingDataSource.onPrimary(() -> patientService.getPatientAppointment(patientId, archived));
     }
 
-    @GetMapping("/appointments/filter/{condition}/{doctorName}/{token}")
+    // Patientenakte aus dem Lesemodell: Termine samt Rezept, seitenweise und neueste zuerst
+    @GetMapping({"/record/{patientId}/{token}/{user}", "/record/{patientId}/{user}"})
+    public ResponseEntity<?> getPatientRecord(@PathVariable Long patientId,
+                                              @AuthToken String token,
+                                              @PathVariable String user,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "20") int size) {
+        String error = service.validateToken(token, user);
+        if (!error.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+        // Patienten sehen nur die eigene Akte
+        if ("patient".equals(user) && !patientId.equals(service.resolvePatientId(token))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied.");
+        }
+        return ResponseEntity.ok(patientRecordService.getRecord(patientId, page, size));
+    }
+
+    @GetMapping({"/appointments/filter/{condition}/{doctorName}/{token}",
+                 "/appointments/filter/{condition}/{doctorName}"})
     public ResponseEntity<?> filterPatientAppointment(@PathVariable String condition,
                                                       @PathVariable String doctorName,
-                                                      @PathVariable String token) {
+                                                      @AuthToken String token,
+                                                      @RequestParam(defaultValue = "false") boolean archived) {
         String error = service.validateToken(token, "patient");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
-        String email = tokenService.extractEmail(token);
-        return ResponseEntity.ok(
-                patientService.filterAppointmentsByConditionAndDoctor(email, condition, doctorName)
-        );
+        // ohne ?archived=true nur die Tabelle appointment, "past" also nur bis archive.horizon-days zurück; vom
+        // Primärserver wie getPatientAppointment (eigene Buchungen sofort sichtbar)
+        if (archived) {
+            return ReadOnlyRoutingDataSource.onPrimary(
+                    () -> service.filterPatientWithArchive(token, condition, doctorName));
+        }
+        return ResponseEntity.ok(ReadOnlyRoutingDataSource.onPrimary(
+                () -> service.filterPatient(token, condition, doctorName)));
     }
     
 // 1. Set Up the Controller Class:
@@ -117,6 +156,12 @@ public class PatientController {
 //    - Delegates authentication to the `validatePatientLogin` method in the shared service.
 //    - Returns a response with a token or an error message depending on login success.
 
+// 5a. Define the `refresh` Method:
+//    - Handles HTTP POST requests with a JSON body {"refreshToken": "..."}.
+//    - Exchanges a valid patient refresh token for a new short-lived access token and a new refresh token.
+//    - A refresh token can be used only once; presenting it again revokes every token of that login.
+//    - Returns 401 Unauthorized if the refresh token is unknown, expired or revoked.
+
 
 // 6. Define the `getPatientAppointment` Method:
 //    - Handles HTTP GET requests to fetch appointment details for a specific patient.
@@ -124,6 +169,11 @@ public class PatientController {
 //    - Validates the token using the shared service.
 //    - If valid, retrieves the patient's appointment data from `PatientService`; otherwise, returns a validation error.
 
+// 6a. Define the `getPatientRecord` Method:
+//    - Handles HTTP GET requests for the patient record (appointments with their prescriptions) with `page` and `size` parameters.
+//    - Reads from the denormalized Mongo read model maintained by `PatientRecordService`, newest appointments first.
+//    - A patient token may only read its own record.
+
 
 // 7. Define the `filterPatientAppointment` Method:
 //    - Handles HTTP GET requests to filter a patient's appointments based on specific conditions.
@@ -1,5 +1,7 @@
 package com.project.back_end.controllers;
 
+import java.util.Map;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.project.back_end.config.AuthToken;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.MvcService;
@@ -31,9 +34,9 @@ public class PrescriptionController {
         this.appointmentService = appointmentService;
     }
 
-    @PostMapping("/save/{token}")
+    @PostMapping({"/save/{token}", "/save"})
     public ResponseEntity<?> savePrescription(@Valid @RequestBody Prescription prescription,
-                                              @PathVariable String token) {
+                                              @AuthToken String token) {
         String error = service.validateToken(token, "doctor");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
@@ -52,15 +55,19 @@ public class PrescriptionController {
         }
     }
 
-    @GetMapping("/{appointmentId}/{token}")
+    @GetMapping({"/{appointmentId}/{token}", "/{appointmentId}"})
     public ResponseEntity<?> getPrescription(@PathVariable Long appointmentId,
-                                             @PathVariable String token) {
+                                             @AuthToken String token) {
         String error = service.validateToken(token, "doctor");
         if (!error.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
     ResponseEntity<?> response = prescriptionService.getPrescription(appointmentId);
-    Prescription prescription = (Prescription) response.getBody();
+    if (!response.getStatusCode().is2xxSuccessful()) {
+        return response;
+    }
+    // Der Service liefert {"prescription": ...}, nicht das Rezept selbst
+    Object prescription = response.getBody() instanceof Map<?, ?> body ? body.get("prescription") : null;
 
     if (prescription == null) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
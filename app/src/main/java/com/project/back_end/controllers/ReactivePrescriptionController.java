@@ -0,0 +1,79 @@
+package com.project.back_end.controllers;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project.back_end.config.AuthToken;
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+import com.project.back_end.services.MvcService;
+
+import reactor.core.publisher.Mono;
+
+// Lesende Rezept-Endpunkte auf dem reaktiven Treiber. Spring MVC gibt den Servlet-Thread frei, sobald ein Mono
+// zurückkommt, und schreibt die Antwort erst, wenn Mongo geantwortet hat (asynchrone Verarbeitung). Die
+// Tokenprüfung bleibt synchron, sie läuft im Speicher. Speichern bleibt im PrescriptionController, weil es mit dem
+// Outbox-Eintrag und der Statusänderung ohnehin über JPA läuft.
+@RestController
+@RequestMapping("${api.path}reactive/prescription")
+@ConditionalOnProperty(name = "prescription.reactive.enabled", havingValue = "true")
+public class ReactivePrescriptionController {
+    // Obergrenze für die Sammelabfrage, wie beim Löschen mehrerer Ärzte
+    private static final int MAX_BATCH = 500;
+
+    private final ReactivePrescriptionRepository prescriptionRepository;
+    private final MvcService service;
+
+    public ReactivePrescriptionController(ReactivePrescriptionRepository prescriptionRepository, MvcService service) {
+        this.prescriptionRepository = prescriptionRepository;
+        this.service = service;
+    }
+
+    @GetMapping({"/{appointmentId}/{token}", "/{appointmentId}"})
+    public Mono<ResponseEntity<?>> getPrescription(@PathVariable Long appointmentId, @AuthToken String token) {
+        String error = service.validateToken(token, "doctor");
+        if (!error.isEmpty()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error));
+        }
+        return prescriptionRepository.findByAppointmentId(appointmentId)
+                .next()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Prescription not found for appointment ID: " + appointmentId));
+    }
+
+    // Rezepte mehrerer Termine mit einer $in-Abfrage, z. B. ?ids=1,2,3
+    @GetMapping({"/batch/{token}", "/batch"})
+    public Mono<ResponseEntity<?>> getPrescriptions(@RequestParam List<Long> ids, @AuthToken String token) {
+        String error = service.validateToken(token, "doctor");
+        if (!error.isEmpty()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error));
+        }
+        if (ids.isEmpty() || ids.size() > MAX_BATCH) {
+            return Mono.just(ResponseEntity.badRequest().body("Between 1 and " + MAX_BATCH + " ids are required."));
+        }
+        return prescriptionRepository.findByAppointmentIdIn(ids)
+                .collectList()
+                .<ResponseEntity<?>>map(ResponseEntity::ok);
+    }
+
+
+// 1. Set Up the Controller Class:
+//    - Registered only with `prescription.reactive.enabled=true`, together with `ReactivePrescriptionConfig`.
+//    - Uses `@RequestMapping("${api.path}reactive/prescription")`, so the blocking endpoints stay unchanged.
+
+// 2. Define the `getPrescription` Method:
+//    - Same contract as `PrescriptionController.getPrescription`: the prescription, 404 if there is none, 401 for an invalid doctor token.
+//    - Returns a `Mono`, so no servlet thread waits for MongoDB.
+
+// 3. Define the `getPrescriptions` Method:
+//    - Returns the prescriptions of up to 500 appointments (`ids` request parameter) as one JSON array.
+
+}
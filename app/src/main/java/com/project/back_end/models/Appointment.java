@@ -3,7 +3,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
@@ -13,7 +15,9 @@ import java.time.LocalTime;
 
 
 
+// Index für automatischen Abschluss und Archivierung (status + Zeitgrenze)
 @Entity
+@Table(indexes = @Index(name = "idx_appointment_status_time", columnList = "status, appointment_time"))
 public class Appointment {
 
   // @Entity annotation:
@@ -70,11 +74,12 @@ public class Appointment {
 //    - Type: private LocalDateTime
 //    - Description:
 //      - This method is a transient field (not persisted in the database).
-//      - It calculates the end time of the appointment by adding one hour to the start time (appointmentTime).
+//      - It calculates the end time of the appointment by adding the doctor's slot length (default one hour) to the start time (appointmentTime).
 //      - It is used to get an estimated appointment end time for display purposes.
   @Transient
   private LocalDateTime getEndTime() {
-      return this.appointmentTime.plusHours(1);
+      Integer slotMinutes = doctor != null ? doctor.getSlotMinutes() : null;
+      return this.appointmentTime.plusMinutes(slotMinutes != null ? slotMinutes : Doctor.DEFAULT_SLOT_MINUTES);
   }
 // 7. 'getAppointmentDate' method:
 //    - Type: private LocalDate
@@ -96,6 +101,8 @@ public class Appointment {
 // 9. Constructor(s):
 //    - A no-argument constructor is implicitly provided by JPA for entity creation.
 //    - A parameterized constructor can be added as needed to initialize fields.
+  public Appointment() {
+  }
   public Appointment(long id, Doctor doctor, Patient patient, LocalDateTime appointmentTime, int status) {
       this.id = id;
       this.doctor = doctor;
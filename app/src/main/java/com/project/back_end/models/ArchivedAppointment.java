@@ -0,0 +1,69 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "appointment_archive", indexes = {
+        @Index(name = "idx_appointment_archive_patient", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointment_archive_doctor", columnList = "doctor_id, appointment_time")
+})
+public class ArchivedAppointment {
+    @Id
+    private Long id;
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+    @Column(name = "appointment_time", nullable = false)
+    private LocalDateTime appointmentTime;
+    @Column(nullable = false)
+    private int status;
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public ArchivedAppointment() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+
+// @Entity annotation:
+//    - Kalte Ablage für abgeschlossene Termine (status=1), die älter als archive.horizon-days sind. Zeilen werden
+//      per INSERT ... SELECT aus appointment übernommen und behalten ihre Id, damit Rezepte (appointmentId) passen.
+//    - Keine Fremdschlüssel auf doctor/patient: beim Löschen eines Arztes räumt DoctorService die Zeilen selbst ab.
+
+// 1. 'doctorId' / 'patientId' fields:
+//    - Nur die Ids; Namen und Kontaktdaten kommen beim Lesen per Join aus doctor und patient.
+
+// 2. 'archivedAt' field:
+//    - Zeitpunkt der Verschiebung, für Auswertungen und spätere Löschfristen.
+
+}
@@ -1,7 +1,11 @@
 package com.project.back_end.models;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.project.back_end.DTO.Views;
 
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -9,6 +13,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -17,6 +23,7 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 public class Doctor {
+    public static final int DEFAULT_SLOT_MINUTES = 60;
 
 // @Entity annotation:
 //    - Marks the class as a JPA entity, meaning it represents a table in the database.
@@ -30,6 +37,7 @@ public class Doctor {
 //      - The @GeneratedValue(strategy = GenerationType.IDENTITY) annotation auto-generates the ID value when a new record is inserted into the database.
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonView(Views.Compact.class)
     private long id;
 // 2. 'name' field:
 //    - Type: private String
@@ -40,6 +48,7 @@ public class Doctor {
 //      - Provides validation for correct input and user experience.
     @NotNull
     @Size(min = 3, max = 100)
+    @JsonView(Views.Compact.class)
     private String name;
 
 // 3. 'specialty' field:
@@ -50,6 +59,7 @@ public class Doctor {
 //      - The @Size(min = 3, max = 50) annotation ensures that the specialty name is between 3 and 50 characters long.
     @NotNull
     @Size(min = 3, max = 50)
+    @JsonView(Views.Compact.class)
     private String specialty;
 // 4. 'email' field:
 //    - Type: private String
@@ -87,8 +97,18 @@ public class Doctor {
 //      - Each time slot is represented as a string (e.g., "09:00-10:00", "10:00-11:00").
 //      - The @ElementCollection annotation ensures that the list of time slots is stored as a separate collection in the database.
     @ElementCollection
+    @BatchSize(size = 100)
     private List<String> availableTimes;
-// 8. Getters and Setters:
+// 8. 'slotMinutes' field:
+//    - Type: private Integer
+//    - Description:
+//      - Length of one bookable slot in minutes (e.g. 15, 30 or 60). Appointments with this doctor last one slot.
+//      - Optional; when null the default of 60 minutes is used.
+//      - The working windows are taken from 'availableTimes'; gaps between them are breaks.
+    @Min(5)
+    @Max(240)
+    private Integer slotMinutes;
+// 9. Getters and Setters:
 //    - Standard getter and setter methods are provided for all fields: id, name, specialty, email, password, phone, and availableTimes.
     public long getId() {
         return id;
@@ -145,5 +165,13 @@ public class Doctor {
     public void setAvailableTimes(List<String> availableTimes) {
         this.availableTimes = availableTimes;
     }
+
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
 }
 
@@ -0,0 +1,64 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "outbox_delivery", indexes = {
+        @Index(name = "idx_outbox_delivery_event", columnList = "event_id, consumer", unique = true)})
+public class OutboxDelivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    @Column(nullable = false, length = 64)
+    private String consumer;
+    @Column(name = "delivered_at", nullable = false)
+    private LocalDateTime deliveredAt;
+
+    public OutboxDelivery() {
+    }
+
+    public OutboxDelivery(Long eventId, String consumer, LocalDateTime deliveredAt) {
+        this.eventId = eventId;
+        this.consumer = consumer;
+        this.deliveredAt = deliveredAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public LocalDateTime getDeliveredAt() {
+        return deliveredAt;
+    }
+
+
+// @Entity annotation:
+//    - Zustellstand eines Outbox-Eintrags je Empfänger (OutboxSink.name()). Der OutboxRelay legt Zeilen nur an,
+//      wenn ein Eintrag bei einem Empfänger scheitert und bei anderen nicht: die Wiederholung geht dann nur an die
+//      Empfänger ohne Zeile. Sobald der Eintrag veröffentlicht ist, werden seine Zeilen gelöscht.
+
+// 1. 'eventId' / 'consumer' fields:
+//    - Id des OutboxEvent und Name des Empfängers; zusammen eindeutig.
+
+// 2. 'deliveredAt' field:
+//    - Zeitpunkt der erfolgreichen Zustellung an diesen Empfänger.
+
+}
@@ -0,0 +1,144 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_published", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_event_once", columnList = "once_key", unique = true)})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "once_key", length = 128)
+    private String onceKey;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String aggregateType, Long aggregateId, String eventType, String payload,
+                       LocalDateTime createdAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getOnceKey() {
+        return onceKey;
+    }
+
+    public void setOnceKey(String onceKey) {
+        this.onceKey = onceKey;
+    }
+
+
+// @Entity annotation:
+//    - Ein Eintrag pro fachlichem Ereignis, geschrieben in derselben Transaktion wie die Änderung selbst.
+//      Der OutboxRelay liest unveröffentlichte Einträge in Id-Reihenfolge und setzt danach 'publishedAt'.
+
+// 1. 'aggregateType' / 'aggregateId' fields:
+//    - APPOINTMENT, PRESCRIPTION oder DOCTOR. Bei APPOINTMENT und PRESCRIPTION ist die Id die Termin-Id, damit alle
+//      Ereignisse eines Termins (auch sein Rezept) in einer Reihenfolge ausgeliefert werden; bei DOCTOR die Arzt-Id.
+
+// 2. 'eventType' field:
+//    - z. B. BOOKED, UPDATED, CANCELED, STATUS_CHANGED, COMPLETED, PRESCRIPTION_SAVED.
+
+// 3. 'payload' field:
+//    - JSON mit den Daten des Ereignisses.
+
+// 4. 'attempts' / 'failedAt' fields:
+//    - Zahl der fehlgeschlagenen Zustellversuche. Nach outbox.relay.max-attempts setzt der Relay 'failedAt'
+//      (Dead Letter): der Eintrag wird nicht mehr zugestellt, bleibt zur Analyse stehen und hält nachfolgende
+//      Ereignisse desselben Aggregats nicht länger auf. Über OutboxService.requeueDeadLetters wieder freigeben.
+
+// 5. 'nextAttemptAt' field:
+//    - Nach einem Fehlversuch frühestens ab hier erneut zustellen (outbox.relay.backoff-ms, verdoppelt je Versuch).
+//      Bis dahin hält der Eintrag auch die späteren Einträge seines Aggregats zurück.
+
+// 6. 'onceKey' field:
+//    - Nur bei OutboxService.recordOnce gesetzt (Typ:Id:Ereignis), sonst null. Der eindeutige Index verhindert,
+//      dass zwei gleichzeitige Aufrufe dasselbe Ereignis zweimal anlegen.
+
+}
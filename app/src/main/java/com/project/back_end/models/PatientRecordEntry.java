@@ -0,0 +1,87 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "patient_records")
+@CompoundIndex(name = "idx_patient_record_time", def = "{'patientId': 1, 'appointmentTime': -1}")
+public class PatientRecordEntry {
+    @Id
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private String doctorName;
+    private LocalDateTime appointmentTime;
+    private int status;
+    private String prescriptionId;
+    private String medication;
+    private String dosage;
+    private String doctorNotes;
+    private LocalDateTime updatedAt;
+
+    public PatientRecordEntry() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getPrescriptionId() {
+        return prescriptionId;
+    }
+
+    public String getMedication() {
+        return medication;
+    }
+
+    public String getDosage() {
+        return dosage;
+    }
+
+    public String getDoctorNotes() {
+        return doctorNotes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+
+// @Document annotation:
+//    - Lesemodell der Patientenakte: ein Dokument je Termin, bereits mit Arztname und Rezept zusammengeführt.
+//      Die Akte eines Patienten ist damit eine einzige Abfrage auf (patientId, appointmentTime) statt
+//      MySQL-Join plus Mongo-Abfrage je Termin.
+//    - Geschrieben wird nur von PatientRecordService (aus den Outbox-Ereignissen), nie vom Request-Pfad.
+
+// 1. 'id' field:
+//    - Die Termin-Id; so bleibt das Dokument beim Archivieren des Termins erhalten und Rezepte finden es direkt.
+
+// 2. 'prescriptionId' / 'medication' / 'dosage' / 'doctorNotes' fields:
+//    - Kopie des Rezepts, leer solange keins ausgestellt ist.
+
+// 3. 'updatedAt' field:
+//    - Zeitpunkt der letzten Projektion, zur Kontrolle der Verzögerung gegenüber der Outbox.
+
+}
@@ -0,0 +1,115 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "pending_notification", indexes = {
+        @Index(name = "idx_pending_notification_source", columnList = "sourceKey", unique = true),
+        @Index(name = "idx_pending_notification_due", columnList = "sentAt, failedAt, nextAttemptAt")
+})
+public class PendingNotification {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 64)
+    private String sourceKey;
+    @Column(nullable = false)
+    private Long patientId;
+    @Column(nullable = false, length = 512)
+    private String line;
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+    private int attempts;
+    private LocalDateTime sentAt;
+    private LocalDateTime failedAt;
+
+    public PendingNotification() {
+    }
+
+    public PendingNotification(String sourceKey, Long patientId, String line, LocalDateTime createdAt) {
+        this.sourceKey = sourceKey;
+        this.patientId = patientId;
+        this.line = line;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+
+// @Entity annotation:
+//    - Eine Zeile je Benachrichtigung an einen Patienten, geschrieben bevor der Relay das auslösende Ereignis als
+//      veröffentlicht markiert. Offene Zeilen überstehen Neustarts und Abstürze und werden danach weiter versandt.
+
+// 1. 'sourceKey' field:
+//    - Herkunft, eindeutig: "outbox:<OutboxMessage.id>" oder "reminder:<Termin-Id>:<Beginn>". Eine erneut
+//      zugestellte Outbox-Nachricht oder ein wiederholter Erinnerungslauf erzeugt so keine zweite Benachrichtigung.
+
+// 2. 'line' field:
+//    - Eine Zeile der Nachricht; alle fälligen Zeilen eines Patienten werden zu einer Nachricht zusammengefasst.
+
+// 3. 'attempts', 'nextAttemptAt', 'sentAt' und 'failedAt' fields:
+//    - Nach einem Fehlversuch wird nextAttemptAt mit wachsendem Abstand verschoben; nach notification.max-attempts
+//      wird failedAt gesetzt. Versandte und aufgegebene Zeilen bleiben für die Duplikaterkennung bis
+//      notification.retention-hours stehen.
+}
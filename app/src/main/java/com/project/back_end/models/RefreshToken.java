@@ -0,0 +1,108 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expiresAt")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 64)
+    private String tokenHash;
+    @Column(nullable = false, length = 36)
+    private String familyId;
+    @Column(nullable = false, length = 16)
+    private String role;
+    @Column(nullable = false)
+    private Long userId;
+    @Column(nullable = false)
+    private String subject;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    private LocalDateTime usedAt;
+    private boolean revoked;
+
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String tokenHash, String familyId, String role, Long userId, String subject,
+                        LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.role = role;
+        this.userId = userId;
+        this.subject = subject;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+
+    public void setUsedAt(LocalDateTime usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+
+
+// @Entity annotation:
+//    - Ein Refresh-Token pro Zeile. Gespeichert wird nur der SHA-256-Hash des Tokens, nie das Token selbst.
+
+// 1. 'familyId' field:
+//    - Alle durch Rotation auseinander hervorgegangenen Tokens eines Logins teilen sich eine Familie.
+//      Wird ein bereits benutztes Token erneut vorgelegt, wird die ganze Familie gesperrt.
+
+// 2. 'role', 'userId' und 'subject' fields:
+//    - Daraus wird beim Erneuern das neue Access-Token gebaut (gleiche Claims wie beim Login).
+
+// 3. 'usedAt' und 'revoked' fields:
+//    - usedAt wird bei der Rotation gesetzt; ein Token ist nur einmal verwendbar.
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+
+// Eine Zeile je ETag-Ressource (ResourceVersions); alle Instanzen lesen und erhöhen denselben Zähler
+@Entity
+@Table(name = "resource_version")
+public class ResourceVersion {
+    @Id
+    @Column(length = 32)
+    private String resource;
+    @Column(nullable = false)
+    private long version;
+
+    public ResourceVersion() {
+    }
+
+    public ResourceVersion(String resource) {
+        this(resource, 0);
+    }
+
+    public ResourceVersion(String resource, long version) {
+        this.resource = resource;
+        this.version = version;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
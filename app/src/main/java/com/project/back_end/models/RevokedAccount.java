@@ -0,0 +1,64 @@
+package com.project.back_end.models;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+
+@Entity
+@Table(name = "revoked_account", indexes = @Index(name = "idx_revoked_account_revoked_at", columnList = "revokedAt"))
+public class RevokedAccount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, length = 16)
+    private String role;
+    @Column(nullable = false)
+    private Long userId;
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedAccount() {
+    }
+
+    public RevokedAccount(String role, Long userId, LocalDateTime revokedAt) {
+        this.role = role;
+        this.userId = userId;
+        this.revokedAt = revokedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+
+
+// @Entity annotation:
+//    - Ein Eintrag pro gesperrtem Konto (z. B. gelöschter Arzt); Tokens dieses Kontos werden abgelehnt,
+//      obwohl ihre Signatur gültig ist. Die Tabelle bleibt klein und wird vom AccountRevocationList geladen.
+
+// 1. 'role' field:
+//    - ADMIN, DOCTOR oder PATIENT, wie im "role"-Claim des Tokens.
+
+// 2. 'userId' field:
+//    - Id des Kontos, wie im "userId"-Claim des Tokens.
+
+// 3. 'revokedAt' field:
+//    - Zeitpunkt der Sperrung.
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
 
 @Repository
@@ -19,9 +20,44 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
 
 
+   // Mengenbasiertes Löschen: ein DELETE statt Laden und Einzellöschen jedes Termins
    @Modifying
-   @Transactional
-   void deleteAllByDoctor_Id(Long doctorId);
+   @Query("DELETE FROM Appointment a WHERE a.doctor.id IN :doctorIds")
+   int deleteByDoctorIds(@Param("doctorIds") java.util.Collection<Long> doctorIds);
+
+   // Nächster Block beendeter, noch offener Termine für den automatischen Abschluss. Ende = Beginn + Slotlänge des
+   // Arztes (ohne Angabe defaultSlotMinutes), wie Appointment.getEndTime. Die Zeilen bleiben bis zum Commit gesperrt;
+   // gerade von anderen Transaktionen gesperrte (z. B. eine laufende Absage) werden übersprungen statt abgewartet.
+   // Sortiert nach appointment_time, id: so liefert idx_appointment_status_time die Reihenfolge, und das LIMIT
+   // bricht nach dem ersten Block ab, statt alle offenen Termine zu sortieren.
+   @Query(value = "SELECT a.id FROM appointment a WHERE a.status = 0 AND a.appointment_time < :now"
+           + " AND TIMESTAMPADD(MINUTE, COALESCE((SELECT d.slot_minutes FROM doctor d WHERE d.id = a.doctor_id),"
+           + " :defaultSlotMinutes), a.appointment_time) <= :now"
+           + " ORDER BY a.appointment_time, a.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+   List<Long> lockElapsedScheduledIds(@Param("now") LocalDateTime now,
+                                      @Param("defaultSlotMinutes") int defaultSlotMinutes,
+                                      @Param("limit") int limit);
+
+   // status = 0 in der Bedingung: zwischenzeitlich von Hand geänderte Termine bleiben unberührt
+   @Modifying
+   @Query("UPDATE Appointment a SET a.status = 1 WHERE a.id IN :ids AND a.status = 0")
+   int completeScheduled(@Param("ids") java.util.Collection<Long> ids);
+
+   // Nächster Block abgeschlossener Termine vor dem Archivierungshorizont, nach Id für stabile Blöcke
+   @Query("SELECT a.id FROM Appointment a WHERE a.status = 1 AND a.appointmentTime < :horizon ORDER BY a.id")
+   List<Long> findCompletedIdsBefore(@Param("horizon") LocalDateTime horizon,
+                                     org.springframework.data.domain.Pageable page);
+
+   @Modifying
+   @Query("DELETE FROM Appointment a WHERE a.id IN :ids")
+   int deleteByIds(@Param("ids") java.util.Collection<Long> ids);
+
+   @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id IN :doctorIds")
+   List<Long> findIdsByDoctorIds(@Param("doctorIds") java.util.Collection<Long> doctorIds);
+
+   // [doctorId, appointmentId] je Termin, für die Löschereignisse je Arzt
+   @Query("SELECT a.doctor.id, a.id FROM Appointment a WHERE a.doctor.id IN :doctorIds")
+   List<Object[]> findDoctorAndIdsByDoctorIds(@Param("doctorIds") java.util.Collection<Long> doctorIds);
    List<Appointment> findByPatient_Id(long patientId);
    List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
    List<Appointment> findByDoctor_NameAndPatient_Id(String doctorName, Long patientId);
@@ -40,6 +76,96 @@ List<Appointment> findByDoctorIdAndDate(
         @Param("endOfDay") LocalDateTime endOfDay
 );
 
+   // Nur die Startzeiten, nach Zeit (und damit nach Tag) sortiert – keine Entities für die Verfügbarkeitsberechnung
+   @Query("SELECT a.appointmentTime FROM Appointment a " +
+       "WHERE a.doctor.id = :doctorId " +
+       "AND a.appointmentTime >= :start AND a.appointmentTime < :end " +
+       "ORDER BY a.appointmentTime")
+List<LocalDateTime> findAppointmentTimesByDoctorId(
+        @Param("doctorId") Long doctorId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+);
+
+   // Termine eines Arztes als [id, appointmentTime] für den Überlappungsindex
+   @Query("SELECT a.id, a.appointmentTime FROM Appointment a " +
+       "WHERE a.doctor.id = :doctorId " +
+       "AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+List<Object[]> findAppointmentSlotsByDoctorId(
+        @Param("doctorId") Long doctorId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+);
+
+   // Terminzeiten für einen Block von Ids (Rezept-Export): Zeilen aus [id, appointmentTime]
+   @Query("SELECT a.id, a.appointmentTime FROM Appointment a WHERE a.id IN :ids")
+List<Object[]> findAppointmentTimesByIds(@Param("ids") java.util.Collection<Long> ids);
+
+   // Belegung vieler Ärzte auf einmal: Zeilen aus [doctorId, appointmentTime]
+   @Query("SELECT a.doctor.id, a.appointmentTime FROM Appointment a " +
+       "WHERE a.doctor.id IN :doctorIds " +
+       "AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+List<Object[]> findAppointmentTimesByDoctorIds(
+        @Param("doctorIds") java.util.Collection<Long> doctorIds,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+);
+
+
+   // Lese-Projektionen: Konstruktorausdruck statt Entities, Arzt und Patient per Join in derselben Abfrage
+   String APPOINTMENT_DTO = "SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name, " +
+       "p.email, p.phone, p.address, a.appointmentTime, a.status, d.slotMinutes) " +
+       "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+
+   @Query(APPOINTMENT_DTO +
+       "WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end " +
+       "ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByDoctorIdAndTimeBetween(
+        @Param("doctorId") Long doctorId,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+);
+
+   @Query(APPOINTMENT_DTO +
+       "WHERE d.id = :doctorId AND a.appointmentTime BETWEEN :start AND :end " +
+       "AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) " +
+       "ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByDoctorIdAndPatientNameAndTimeBetween(
+        @Param("doctorId") Long doctorId,
+        @Param("patientName") String patientName,
+        @Param("start") LocalDateTime start,
+        @Param("end") LocalDateTime end
+);
+
+   @Query(APPOINTMENT_DTO + "WHERE a.status = 0 AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+List<AppointmentDTO> findDtosScheduledBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+   @Query(APPOINTMENT_DTO + "WHERE a.id = :id")
+java.util.Optional<AppointmentDTO> findDtoById(@Param("id") Long id);
+
+   @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByPatientId(@Param("patientId") Long patientId);
+
+   // Nächster Block nach Id für das Nachziehen aller Patientenakten
+   @Query(APPOINTMENT_DTO + "WHERE a.id > :afterId ORDER BY a.id")
+List<AppointmentDTO> findDtosAfterId(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable page);
+
+   // Gegenprobe nach dem Nachziehen: welche Termine gibt es noch, und mit welchem Stand
+   @Query(APPOINTMENT_DTO + "WHERE a.id IN :ids")
+List<AppointmentDTO> findDtosByIds(@Param("ids") java.util.Collection<Long> ids);
+
+   @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId AND a.status = :status ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByPatientIdAndStatus(@Param("patientId") Long patientId, @Param("status") int status);
+
+   @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId AND d.name = :doctorName ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByPatientIdAndDoctorName(@Param("patientId") Long patientId,
+                                                      @Param("doctorName") String doctorName);
+
+   @Query(APPOINTMENT_DTO + "WHERE p.id = :patientId AND d.name = :doctorName AND a.status = :status " +
+       "ORDER BY a.appointmentTime")
+List<AppointmentDTO> findDtosByPatientIdAndDoctorNameAndStatus(@Param("patientId") Long patientId,
+                                                               @Param("doctorName") String doctorName,
+                                                               @Param("status") int status);
 
    // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Appointment, Long>, which gives it basic CRUD functionality.
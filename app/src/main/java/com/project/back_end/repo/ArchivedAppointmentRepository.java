@@ -0,0 +1,67 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.ArchivedAppointment;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    // Kopiert einen Block aus appointment; Id bleibt erhalten
+    @Modifying
+    @Query(value = "INSERT INTO appointment_archive (id, doctor_id, patient_id, appointment_time, status, archived_at) " +
+            "SELECT id, doctor_id, patient_id, appointment_time, status, :archivedAt FROM appointment WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromAppointments(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    String ARCHIVED_DTO = "SELECT new com.project.back_end.DTO.AppointmentDTO(x.id, d.id, d.name, p.id, p.name, " +
+            "p.email, p.phone, p.address, x.appointmentTime, x.status, d.slotMinutes) " +
+            "FROM ArchivedAppointment x JOIN Doctor d ON d.id = x.doctorId JOIN Patient p ON p.id = x.patientId ";
+
+    @Query(ARCHIVED_DTO + "WHERE x.patientId = :patientId ORDER BY x.appointmentTime")
+    List<AppointmentDTO> findDtosByPatientId(@Param("patientId") Long patientId);
+
+    @Query(ARCHIVED_DTO + "WHERE x.id > :afterId ORDER BY x.id")
+    List<AppointmentDTO> findDtosAfterId(@Param("afterId") Long afterId, Pageable page);
+
+    @Query(ARCHIVED_DTO + "WHERE x.id IN :ids")
+    List<AppointmentDTO> findDtosByIds(@Param("ids") Collection<Long> ids);
+
+    // Gegenstücke zu den Patientenfiltern im AppointmentRepository
+    @Query(ARCHIVED_DTO + "WHERE x.patientId = :patientId AND x.status = :status ORDER BY x.appointmentTime")
+    List<AppointmentDTO> findDtosByPatientIdAndStatus(@Param("patientId") Long patientId, @Param("status") int status);
+
+    @Query(ARCHIVED_DTO + "WHERE x.patientId = :patientId AND d.name = :doctorName ORDER BY x.appointmentTime")
+    List<AppointmentDTO> findDtosByPatientIdAndDoctorName(@Param("patientId") Long patientId,
+                                                          @Param("doctorName") String doctorName);
+
+    @Query(ARCHIVED_DTO + "WHERE x.patientId = :patientId AND d.name = :doctorName AND x.status = :status " +
+            "ORDER BY x.appointmentTime")
+    List<AppointmentDTO> findDtosByPatientIdAndDoctorNameAndStatus(@Param("patientId") Long patientId,
+                                                                   @Param("doctorName") String doctorName,
+                                                                   @Param("status") int status);
+
+    // Gegenstück zu AppointmentRepository.findAppointmentTimesByIds: [id, appointmentTime]
+    @Query("SELECT x.id, x.appointmentTime FROM ArchivedAppointment x WHERE x.id IN :ids")
+    List<Object[]> findAppointmentTimesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT x.id FROM ArchivedAppointment x WHERE x.doctorId IN :doctorIds")
+    List<Long> findIdsByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+
+    @Query("SELECT x.doctorId, x.id FROM ArchivedAppointment x WHERE x.doctorId IN :doctorIds")
+    List<Object[]> findDoctorAndIdsByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedAppointment x WHERE x.doctorId IN :doctorIds")
+    int deleteByDoctorIds(@Param("doctorIds") Collection<Long> doctorIds);
+}
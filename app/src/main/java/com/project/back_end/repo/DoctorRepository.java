@@ -1,9 +1,13 @@
 package com.project.back_end.repo;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.project.back_end.models.Doctor;
@@ -17,6 +21,21 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(String name, String specialty);
     List<Doctor> findBySpecialtyContainingIgnoreCase(String specialty);
 
+    @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.availableTimes WHERE d.id = :id")
+    Optional<Doctor> findWithAvailableTimesById(@Param("id") Long id);
+
+    @Query("SELECT d.id FROM Doctor d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // JPQL-Bulk-Deletes kaskadieren nicht auf @ElementCollection, daher die Sprechzeiten vorher per SQL entfernen
+    @Modifying
+    @Query(value = "DELETE FROM doctor_available_times WHERE doctor_id IN (:ids)", nativeQuery = true)
+    int deleteAvailableTimesByDoctorIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Doctor d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
    // 1. Extend JpaRepository:
 //    - The repository extends JpaRepository<Doctor, Long>, which gives it basic CRUD functionality.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
@@ -0,0 +1,24 @@
+package com.project.back_end.repo;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.OutboxDelivery;
+
+@Repository
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, Long> {
+
+    // [eventId, consumer] der Empfänger, die diese Einträge schon erhalten haben
+    @Query("SELECT d.eventId, d.consumer FROM OutboxDelivery d WHERE d.eventId IN :eventIds")
+    List<Object[]> findConsumersByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM OutboxDelivery d WHERE d.eventId IN :eventIds")
+    int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
+}
@@ -0,0 +1,49 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Fällige Einträge: ohne Dead Letters (failedAt gesetzt) und ohne Einträge in der Wartezeit nach einem Fehlversuch
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.failedAt IS NULL"
+            + " AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(@Param("now") LocalDateTime now, Pageable page);
+
+    // [aggregateType, aggregateId] der Einträge, die nach einem Fehlversuch noch warten
+    @Query("SELECT DISTINCT e.aggregateType, e.aggregateId FROM OutboxEvent e WHERE e.publishedAt IS NULL"
+            + " AND e.failedAt IS NULL AND e.nextAttemptAt > :now")
+    List<Object[]> findWaitingAggregates(@Param("now") LocalDateTime now);
+
+    boolean existsByOnceKey(String onceKey);
+
+    // Dead Letters wieder zustellen, z. B. nachdem der Fehler beim Empfänger behoben ist
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = NULL, e.attempts = 0, e.nextAttemptAt = NULL"
+            + " WHERE e.failedAt IS NOT NULL AND e.id IN :ids")
+    int requeueFailed(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.failedAt = NULL, e.attempts = 0, e.nextAttemptAt = NULL"
+            + " WHERE e.failedAt IS NOT NULL")
+    int requeueAllFailed();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
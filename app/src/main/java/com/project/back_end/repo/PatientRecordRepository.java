@@ -0,0 +1,14 @@
+package com.project.back_end.repo;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.PatientRecordEntry;
+
+@Repository
+public interface PatientRecordRepository extends MongoRepository<PatientRecordEntry, Long> {
+    // Neueste Termine zuerst; nutzt den Index (patientId, appointmentTime)
+    Page<PatientRecordEntry> findByPatientIdOrderByAppointmentTimeDesc(Long patientId, Pageable pageable);
+}
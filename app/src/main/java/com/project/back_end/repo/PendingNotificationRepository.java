@@ -0,0 +1,31 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.PendingNotification;
+
+@Repository
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+
+    boolean existsBySourceKey(String sourceKey);
+
+    // Nächster Block fälliger Benachrichtigungen, bis zum Commit gesperrt; was eine andere Instanz gerade versendet,
+    // wird übersprungen
+    @Query(value = "SELECT * FROM pending_notification WHERE sent_at IS NULL AND failed_at IS NULL"
+            + " AND next_attempt_at <= :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PendingNotification> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(n) FROM PendingNotification n WHERE n.sentAt IS NULL AND n.failedAt IS NULL")
+    long countPending();
+
+    @Modifying
+    @Query("DELETE FROM PendingNotification n WHERE n.sentAt < :cutoff OR n.failedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,6 +1,7 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Prescription;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -8,6 +9,8 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
     List<Prescription> findByAppointmentId(Long appointmentId);
+    // Alle Rezepte einer Terminliste in einer Abfrage ($in)
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
 // 1. Extend MongoRepository:
 //    - The repository extends MongoRepository<Prescription, String>, which provides basic CRUD functionality for MongoDB.
 //    - This allows the repository to perform operations like save, delete, update, and find without needing to implement these methods manually.
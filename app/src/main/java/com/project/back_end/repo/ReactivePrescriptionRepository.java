@@ -0,0 +1,18 @@
+package com.project.back_end.repo;
+
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.Prescription;
+
+import reactor.core.publisher.Flux;
+
+// Nicht blockierendes Gegenstück zu PrescriptionRepository, nur mit prescription.reactive.enabled=true registriert
+@Repository
+public interface ReactivePrescriptionRepository extends ReactiveMongoRepository<Prescription, String> {
+    Flux<Prescription> findByAppointmentId(Long appointmentId);
+
+    Flux<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+}
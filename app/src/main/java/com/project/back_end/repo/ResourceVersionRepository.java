@@ -0,0 +1,22 @@
+package com.project.back_end.repo;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.ResourceVersion;
+
+@Repository
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+    @Query("SELECT v.version FROM ResourceVersion v WHERE v.resource = :resource")
+    Optional<Long> findVersion(@Param("resource") String resource);
+
+    // Sperrt die Zeile bis zum Commit der schreibenden Transaktion
+    @Modifying
+    @Query(value = "UPDATE resource_version SET version = version + 1 WHERE resource = :resource", nativeQuery = true)
+    int increment(@Param("resource") String resource);
+}
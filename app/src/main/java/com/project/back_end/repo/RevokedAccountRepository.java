@@ -0,0 +1,18 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.project.back_end.models.RevokedAccount;
+
+@Repository
+public interface RevokedAccountRepository extends JpaRepository<RevokedAccount, Long> {
+    @Modifying
+    @Query("DELETE FROM RevokedAccount r WHERE r.revokedAt < :cutoff")
+    int deleteRevokedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
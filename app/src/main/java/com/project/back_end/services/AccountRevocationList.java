@@ -0,0 +1,158 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.RevokedAccount;
+import com.project.back_end.repo.RefreshTokenRepository;
+import com.project.back_end.repo.RevokedAccountRepository;
+
+// Gesperrte Konten im Speicher, damit die Tokenprüfung ohne SQL auskommt. Ein Bloom-Filter beantwortet den
+// Normalfall ("nicht gesperrt") mit wenigen Bit-Zugriffen; nur bei einem Treffer wird im exakten Set nachgesehen.
+// Der Stand wird regelmäßig aus revoked_account neu geladen, eigene Sperrungen wirken direkt nach dem Commit. Einträge,
+// die älter als die Access-Token-Laufzeit sind, werden entfernt – danach gibt es kein gültiges Access-Token des Kontos
+// mehr, und seine Refresh-Tokens sind beim Sperren bereits ungültig geworden.
+@Component
+public class AccountRevocationList {
+
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 7;
+
+    private final RevokedAccountRepository revokedAccountRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long accessTtlMillis;
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.of(Set.of());
+    // Eigene Sperrungen mit der Generation, in der sie übernommen wurden (geschützt durch this)
+    private final Map<String, Long> recentlyAdded = new HashMap<>();
+    private long generation;
+
+    public AccountRevocationList(RevokedAccountRepository revokedAccountRepository,
+                                 RefreshTokenRepository refreshTokenRepository,
+                                 @Value("${jwt.access-ttl-ms:900000}") long accessTtlMillis) {
+        this.revokedAccountRepository = revokedAccountRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTtlMillis = accessTtlMillis;
+    }
+
+    public boolean isRevoked(String role, Long userId) {
+        return snapshot.contains(key(role, userId));
+    }
+
+    @Transactional
+    public void revoke(String role, Long userId) {
+        revokedAccountRepository.save(new RevokedAccount(role.toUpperCase(), userId, LocalDateTime.now()));
+        refreshTokenRepository.revokeAccount(role.toUpperCase(), userId);
+        // Erst nach dem Commit übernehmen: bei einem Rollback bliebe das Konto sonst bis zum nächsten refresh() gesperrt
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key(role, userId));
+                }
+            });
+        } else {
+            add(key(role, userId));
+        }
+    }
+
+    private synchronized void add(String key) {
+        Set<String> keys = new HashSet<>(snapshot.keys);
+        keys.add(key);
+        recentlyAdded.put(key, generation);
+        snapshot = Snapshot.of(keys);
+    }
+
+    // Sperrungen, die nach dem Start des Ladens übernommen wurden, fehlen womöglich im gelesenen Stand; sie werden
+    // daher mit übernommen statt überschrieben. Ältere waren vor dem Lesen committet und stehen in der Tabelle.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.revocation.refresh-ms:30000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            long started;
+            synchronized (this) {
+                started = ++generation;
+            }
+            List<RevokedAccount> revoked = revokedAccountRepository.findAll();
+            Set<String> keys = new HashSet<>();
+            for (RevokedAccount account : revoked) {
+                keys.add(key(account.getRole(), account.getUserId()));
+            }
+            synchronized (this) {
+                recentlyAdded.values().removeIf(addedIn -> addedIn < started);
+                keys.addAll(recentlyAdded.keySet());
+                snapshot = Snapshot.of(keys);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.prune-ms:3600000}")
+    @Transactional
+    public void pruneExpired() {
+        revokedAccountRepository.deleteRevokedBefore(LocalDateTime.now().minus(Duration.ofMillis(accessTtlMillis)));
+        refresh();
+    }
+
+    private static String key(String role, Long userId) {
+        return role.toUpperCase() + ":" + userId;
+    }
+
+    // Unveränderlicher Stand: Bloom-Filter plus exaktes Set gegen Fehlalarme des Filters
+    private static final class Snapshot {
+        private final Set<String> keys;
+        private final BitSet bloom;
+        private final int size;
+
+        private Snapshot(Set<String> keys, BitSet bloom, int size) {
+            this.keys = keys;
+            this.bloom = bloom;
+            this.size = size;
+        }
+
+        static Snapshot of(Set<String> keys) {
+            int size = Math.max(64, keys.size() * BITS_PER_ENTRY);
+            BitSet bloom = new BitSet(size);
+            for (String key : keys) {
+                int h1 = key.hashCode();
+                int h2 = mix(h1);
+                for (int i = 0; i < HASHES; i++) {
+                    bloom.set(Math.floorMod(h1 + i * h2, size));
+                }
+            }
+            return new Snapshot(Set.copyOf(keys), bloom, size);
+        }
+
+        boolean contains(String key) {
+            int h1 = key.hashCode();
+            int h2 = mix(h1);
+            for (int i = 0; i < HASHES; i++) {
+                if (!bloom.get(Math.floorMod(h1 + i * h2, size))) {
+                    return false;
+                }
+            }
+            return keys.contains(key);
+        }
+
+        // Zweiter, unabhängiger Hash für Double Hashing (Finalizer aus MurmurHash3), immer ungerade
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h | 1;
+        }
+    }
+}
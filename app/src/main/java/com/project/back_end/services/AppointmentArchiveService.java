@@ -0,0 +1,72 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+
+// Verschiebt abgeschlossene Termine, die älter als der Horizont sind, nach appointment_archive. Jeder Block läuft in
+// einer eigenen kurzen Transaktion (INSERT ... SELECT, dann DELETE nach Id), damit keine langen Sperren auf
+// appointment entstehen; pro Lauf höchstens archive.max-batches Blöcke, der Rest folgt beim nächsten Lauf.
+@Service
+public class AppointmentArchiveService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ResourceVersions resourceVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonDays;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public AppointmentArchiveService(AppointmentRepository appointmentRepository,
+                                     ArchivedAppointmentRepository archivedAppointmentRepository,
+                                     ResourceVersions resourceVersions,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${archive.horizon-days:365}") int horizonDays,
+                                     @Value("${archive.batch-size:1000}") int batchSize,
+                                     @Value("${archive.max-batches:100}") int maxBatches) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    // Liefert die Zahl der verschobenen Termine
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    public int archiveCompleted() {
+        LocalDateTime horizon = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+        int moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = transactionTemplate.execute(status -> archiveBatch(horizon));
+            moved += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    private int archiveBatch(LocalDateTime horizon) {
+        List<Long> ids = appointmentRepository.findCompletedIdsBefore(horizon, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedAppointmentRepository.copyFromAppointments(ids, LocalDateTime.now());
+        appointmentRepository.deleteByIds(ids);
+        resourceVersions.bump(ResourceVersions.APPOINTMENTS);
+        return ids.size();
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+
+// Setzt beendete Termine (Beginn + Slotlänge des Arztes vor jetzt) automatisch auf abgeschlossen, damit sie nicht mehr
+// unter "future" erscheinen. Pro Block SELECT ... FOR UPDATE SKIP LOCKED und UPDATE ... WHERE id IN (...) in eigener
+// kurzer Transaktion: die Zeilensperren gelten nur für den Block, nicht für die ganze Tabelle, und Termine, die gerade
+// anderweitig geändert werden, bleiben für den nächsten Lauf liegen. Event und COMPLETED-Einträge in der Outbox nur für
+// tatsächlich abgeschlossene Termine. Der Index (status, appointment_time) hält die Suche klein.
+@Service
+public class AppointmentCompletionService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ResourceVersions resourceVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public AppointmentCompletionService(AppointmentRepository appointmentRepository,
+                                        ResourceVersions resourceVersions,
+                                        ApplicationEventPublisher eventPublisher,
+                                        OutboxService outboxService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${appointments.auto-complete.batch-size:500}") int batchSize,
+                                        @Value("${appointments.auto-complete.max-batches:50}") int maxBatches) {
+        this.appointmentRepository = appointmentRepository;
+        this.resourceVersions = resourceVersions;
+        this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    // Liefert die Zahl der abgeschlossenen Termine
+    @Scheduled(fixedDelayString = "${appointments.auto-complete.interval-ms:300000}")
+    public int completeElapsed() {
+        LocalDateTime now = LocalDateTime.now();
+        int completed = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = transactionTemplate.execute(status -> completeBatch(now));
+            if (!ids.isEmpty()) {
+                // erst nach dem Commit melden
+                eventPublisher.publishEvent(new AppointmentsCompletedEvent(ids, now));
+            }
+            completed += ids.size();
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return completed;
+    }
+
+    private List<Long> completeBatch(LocalDateTime now) {
+        // gesperrt und status = 0: das UPDATE trifft genau diese Zeilen
+        List<Long> ids = appointmentRepository.lockElapsedScheduledIds(now, Doctor.DEFAULT_SLOT_MINUTES, batchSize);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        appointmentRepository.completeScheduled(ids);
+        outboxService.recordAll(OutboxService.APPOINTMENT, ids, "COMPLETED",
+                id -> Map.of("appointmentId", id, "status", 1));
+        resourceVersions.bump(ResourceVersions.APPOINTMENTS);
+        return ids;
+    }
+}
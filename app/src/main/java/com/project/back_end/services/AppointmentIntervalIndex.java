@@ -0,0 +1,73 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+// Überlappungsindex über die Termine eines Arztes: nach Beginn sortierte Intervalle [start, end) plus
+// Präfix-Maximum der Enden. Ein Intervall [qs, qe) überlappt genau dann, wenn unter den Terminen mit
+// start < qe (Binärsuche) das größte Ende nach qs liegt – Abfrage in O(log n), auch bei überlappenden Terminen.
+public class AppointmentIntervalIndex {
+    private final long[] starts;
+    private final long[] maxEndUpTo;
+
+    private AppointmentIntervalIndex(long[] starts, long[] maxEndUpTo) {
+        this.starts = starts;
+        this.maxEndUpTo = maxEndUpTo;
+    }
+
+    // rows: [appointmentId (Long), appointmentTime (LocalDateTime)]; jeder Termin dauert durationMinutes
+    public static AppointmentIntervalIndex build(List<Object[]> rows, int durationMinutes, long excludeAppointmentId) {
+        long[] sorted = new long[rows.size()];
+        int count = 0;
+        for (Object[] row : rows) {
+            if ((Long) row[0] != excludeAppointmentId) {
+                sorted[count++] = toSeconds((LocalDateTime) row[1]);
+            }
+        }
+        long[] starts = Arrays.copyOf(sorted, count);
+        Arrays.sort(starts);
+
+        long duration = durationMinutes * 60L;
+        long[] maxEndUpTo = new long[count];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            maxEnd = Math.max(maxEnd, starts[i] + duration);
+            maxEndUpTo[i] = maxEnd;
+        }
+        return new AppointmentIntervalIndex(starts, maxEndUpTo);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        long queryStart = toSeconds(start);
+        long queryEnd = toSeconds(end);
+        if (queryEnd <= queryStart) {
+            return false;
+        }
+        int beforeEnd = countStartsBefore(queryEnd);
+        return beforeEnd > 0 && maxEndUpTo[beforeEnd - 1] > queryStart;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    private int countStartsBefore(long time) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
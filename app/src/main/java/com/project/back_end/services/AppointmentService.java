@@ -2,17 +2,16 @@ package com.project.back_end.services;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
-import com.project.back_end.models.Doctor;
-import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
@@ -26,15 +25,19 @@ public class AppointmentService {
     private final MvcService service;
     private final PatientRepository patientRepository;
     private final DoctorRepository doctorRepository;
-
+    private final ResourceVersions resourceVersions;
+    private final OutboxService outboxService;
 
     public AppointmentService(AppointmentRepository appointmentRepository, MvcService service,
                               TokenService tokenService, PatientRepository patientRepository,
-                              DoctorRepository doctorRepository) {
+                              DoctorRepository doctorRepository, ResourceVersions resourceVersions,
+                              OutboxService outboxService) {
         this.appointmentRepository = appointmentRepository;
         this.service = service;
         this.patientRepository = patientRepository;
         this.doctorRepository = doctorRepository;
+        this.resourceVersions = resourceVersions;
+        this.outboxService = outboxService;
     }
 
     @Transactional
@@ -43,7 +46,9 @@ public class AppointmentService {
             throw new IllegalArgumentException("Appointment object must not be null");
         }
         try {
-            appointmentRepository.save(appointment);
+            Appointment saved = appointmentRepository.save(appointment);
+            outboxService.record(OutboxService.APPOINTMENT, saved.getId(), "BOOKED", payload(saved));
+            resourceVersions.bump(ResourceVersions.APPOINTMENTS);
             return 1; // Success
         } catch (Exception e) {
             return 0; // Failure
@@ -65,7 +70,6 @@ public class AppointmentService {
         boolean isDoctorAvailable = service.isDoctorAvailable(
                 updatedAppointment.getDoctorId(),
                 updatedAppointment.getAppointmentTime(),
-                updatedAppointment.getAppointmentTime().plusHours(1),
                 appointmentId
         );
         if (!isDoctorAvailable) {
@@ -74,6 +78,8 @@ public class AppointmentService {
         existingAppointment.setDoctorId(updatedAppointment.getDoctorId());
         existingAppointment.setAppointmentTime(updatedAppointment.getAppointmentTime());
         appointmentRepository.save(existingAppointment);
+        outboxService.record(OutboxService.APPOINTMENT, appointmentId, "UPDATED", payload(existingAppointment));
+        resourceVersions.bump(ResourceVersions.APPOINTMENTS);
         return "Appointment updated successfully.";
     }
     @Transactional
@@ -87,44 +93,43 @@ public class AppointmentService {
         }
         try { 
             appointmentRepository.deleteById(appointmentId);
+            outboxService.record(OutboxService.APPOINTMENT, appointmentId, "CANCELED", payload(existingAppointment));
+            resourceVersions.bump(ResourceVersions.APPOINTMENTS);
             return "Appointment canceled successfully.";
         } catch (Exception e) {
             return "Error occurred while canceling the appointment.";
         }
     }
-    @Transactional
+    // Nur lesend: Projektion direkt in AppointmentDTO, keine Entities und kein Dirty Checking beim Commit
+    @Transactional(readOnly = true)
     public List<AppointmentDTO> getAppointments(Long doctorId, String patientName, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-        List<Appointment> appointments;
         if (doctorId == null || date == null) {
                 throw new IllegalArgumentException("Doctor ID and date must not be null");
             }
+        LocalDateTime startOfDay = date.atStartOfDay();
+        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
         if (patientName == null || patientName.isEmpty()) {
-            appointments = appointmentRepository.findByDoctor_IdAndAppointmentTimeBetween(doctorId, startOfDay, endOfDay);
-        } else {
-            appointments = appointmentRepository.findByDoctor_IdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(doctorId, patientName, startOfDay, endOfDay);
+            return appointmentRepository.findDtosByDoctorIdAndTimeBetween(doctorId, startOfDay, endOfDay);
         }
-        return appointments.stream().map(appointment -> {
-            Patient patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            Doctor doctor = doctorRepository.findById(appointment.getDoctorId()).orElse(null);
-            return new AppointmentDTO(
-                    appointment.getId(),
-                    appointment.getDoctorId(),
-                    doctor != null ? doctor.getName() : "Unknown",
-                    appointment.getPatientId(),
-                    patient != null ? patient.getName() : "Unknown",
-                    patient != null ? patient.getEmail() : "Unknown",
-                    patient != null ? patient.getPhone() : "Unknown",
-                    patient != null ? patient.getAddress() : "Unknown",
-                    appointment.getAppointmentTime(),
-                    appointment.getStatus()
-            );
-        }).collect(Collectors.toList());
+        return appointmentRepository.findDtosByDoctorIdAndPatientNameAndTimeBetween(doctorId, patientName, startOfDay, endOfDay);
     }
     @Transactional
     public void changeStatus(Long appointmentId, int status) {
         appointmentRepository.updateStatus(status, appointmentId);
+        outboxService.record(OutboxService.APPOINTMENT, appointmentId, "STATUS_CHANGED",
+                Map.of("appointmentId", appointmentId, "status", status));
+        resourceVersions.bump(ResourceVersions.APPOINTMENTS);
+    }
+
+    // Nutzdaten der Outbox-Ereignisse eines Termins
+    static Map<String, Object> payload(Appointment appointment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("appointmentId", appointment.getId());
+        payload.put("doctorId", appointment.getDoctorId());
+        payload.put("patientId", appointment.getPatientId());
+        payload.put("appointmentTime", appointment.getAppointmentTime());
+        payload.put("status", appointment.getStatus());
+        return payload;
     }
 
     public Optional<Appointment> getAppointmentById(Long appointmentId) {
@@ -0,0 +1,8 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Wird nach dem Commit eines Abschluss-Blocks veröffentlicht: diese Termine stehen jetzt auf status=1
+public record AppointmentsCompletedEvent(List<Long> appointmentIds, LocalDateTime completedAt) {
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Service;
+
+// Gemeinsame Passwortprüfung für Admins, Ärzte und Patienten. Gespeicherte Passwörter im Klartext (Altbestand)
+// oder mit kleinerem Kostenfaktor als security.bcrypt.strength werden nach erfolgreichem Login neu gehasht.
+@Service
+public class CredentialService {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final PasswordHashingService passwordHashing;
+
+    public CredentialService(PasswordHashingService passwordHashing) {
+        this.passwordHashing = passwordHashing;
+    }
+
+    public String hash(String rawPassword) {
+        return passwordHashing.encode(rawPassword);
+    }
+
+    // true bei passendem Passwort; rehash erhält dann ggf. den neuen Hash zum Speichern
+    public boolean verify(String rawPassword, String storedPassword, Consumer<String> rehash) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!isHashed(storedPassword)) {
+            // Klartext aus der Zeit vor dem Hashing: zeitkonstant vergleichen und sofort hashen
+            boolean matches = MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+            if (matches) {
+                rehash.accept(passwordHashing.encode(rawPassword));
+            }
+            return matches;
+        }
+        if (!passwordHashing.matches(rawPassword, storedPassword)) {
+            return false;
+        }
+        if (passwordHashing.upgradeEncoding(storedPassword)) {
+            rehash.accept(passwordHashing.encode(rawPassword));
+        }
+        return true;
+    }
+
+    public static boolean isHashed(String storedPassword) {
+        return BCRYPT.matcher(storedPassword).matches();
+    }
+}
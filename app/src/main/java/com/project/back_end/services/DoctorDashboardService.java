@@ -0,0 +1,153 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.AppointmentWithPrescription;
+import com.project.back_end.models.Prescription;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+// Termine eines Tages samt Rezept für das Arzt-Dashboard. Statt einer Mongo-Abfrage je Termin holt ein einziger
+// $in-Aufruf alle Rezepte. Beide Abfragen laufen in einem eigenen, begrenzten Pool unter einer gemeinsamen Frist
+// (dashboard.deadline-ms): verpasst MySQL die Frist, gibt es einen Timeout; verpasst Mongo sie, kommen die Termine
+// trotzdem, nur mit Rezeptstatus UNKNOWN. Die Restfrist geht als Abfrage-Timeout an beide Datenbanken (Transaktions-
+// Timeout -> jakarta.persistence.query.timeout, Mongo maxTime), damit eine abgebrochene Anfrage dort nicht
+// weiterläuft; das Interrupt von cancel(true) allein hält einen blockierenden Treiberaufruf nicht an. Ist der Pool
+// voll, wirft getAppointments RejectedExecutionException (Controller: 503).
+@Service
+public class DoctorDashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDashboardService.class);
+
+    private final AppointmentService appointmentService;
+    private final MongoTemplate mongoTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ThreadPoolExecutor executor;
+    private final long deadlineMillis;
+    private final Counter degraded;
+
+    public DoctorDashboardService(AppointmentService appointmentService,
+                                  MongoTemplate mongoTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${dashboard.threads:8}") int threads,
+                                  @Value("${dashboard.queue-capacity:100}") int queueCapacity,
+                                  @Value("${dashboard.deadline-ms:800}") long deadlineMillis) {
+        this.appointmentService = appointmentService;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionManager = transactionManager;
+        this.deadlineMillis = deadlineMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), dashboardThreads(), new ThreadPoolExecutor.AbortPolicy());
+        this.degraded = Counter.builder("dashboard.prescriptions.degraded").register(meterRegistry);
+    }
+
+    public List<AppointmentWithPrescription> getAppointments(Long doctorId, String patientName, LocalDate date)
+            throws TimeoutException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+
+        List<AppointmentDTO> appointments = await(executor.submit(() -> readOnlyWithin(deadline)
+                .execute(status -> appointmentService.getAppointments(doctorId, patientName, date))), deadline);
+        if (appointments.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = appointments.stream().map(AppointmentDTO::id).toList();
+        Map<Long, Prescription> prescriptions;
+        try {
+            prescriptions = await(executor.submit(() -> mongoTemplate.find(
+                    Query.query(Criteria.where("appointmentId").in(ids)).maxTime(remaining(deadline)),
+                    Prescription.class)
+                    .stream()
+                    .collect(Collectors.toMap(Prescription::getAppointmentId, Function.identity(), (a, b) -> a))),
+                    deadline);
+        } catch (TimeoutException | RuntimeException e) {
+            // Termine ohne Rezeptdaten sind besser als ein hängendes Dashboard
+            log.warn("Prescriptions for doctor {} unavailable: {}", doctorId, e.toString());
+            degraded.increment();
+            return appointments.stream()
+                    .map(appointment -> new AppointmentWithPrescription(appointment, null,
+                            AppointmentWithPrescription.UNKNOWN))
+                    .toList();
+        }
+        return appointments.stream()
+                .map(appointment -> {
+                    Prescription prescription = prescriptions.get(appointment.id());
+                    return new AppointmentWithPrescription(appointment, prescription,
+                            prescription != null ? AppointmentWithPrescription.PRESENT : AppointmentWithPrescription.NONE);
+                })
+                .toList();
+    }
+
+    // Lesende Transaktion mit der Restfrist als Timeout; Spring setzt daraus jakarta.persistence.query.timeout für
+    // jede Abfrage darin (JDBC rechnet in ganzen Sekunden, daher aufgerundet)
+    private TransactionTemplate readOnlyWithin(long deadline) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setTimeout((int) Math.max(1L, (remaining(deadline).toMillis() + 999) / 1000));
+        return transactionTemplate;
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), deadline - System.nanoTime()));
+    }
+
+    // Auf das Ergebnis warten, höchstens bis zur Frist der gesamten Anfrage
+    private static <T> T await(Future<T> future, long deadline) throws TimeoutException {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Dashboard query interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Dashboard query failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory dashboardThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
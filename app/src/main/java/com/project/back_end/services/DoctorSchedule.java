@@ -0,0 +1,149 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.project.back_end.models.Doctor;
+
+// Kompilierter Arbeitsplan eines Arztes: Arbeitsfenster aus availableTimes ("09:00-12:00"), Lücken dazwischen
+// sind Pausen, darin liegen Slots der Länge slotMinutes. Wird einmal pro Arzt gebaut und im DoctorScheduleCache gehalten.
+public class DoctorSchedule {
+
+    // Ohne verwertbare availableTimes gilt das bisherige Raster 09:00-17:00
+    private static final int DEFAULT_WINDOW_START = 9 * 60;
+    private static final int DEFAULT_WINDOW_END = 17 * 60;
+
+    public static final DoctorSchedule DEFAULT = compile(null, null);
+
+    // Arbeitsfenster als sortierte, überlappungsfreie Minuten-Intervalle [start, end)
+    private final int[] windowStarts;
+    private final int[] windowEnds;
+    private final SlotGrid grid;
+
+    private DoctorSchedule(int[] windowStarts, int[] windowEnds, SlotGrid grid) {
+        this.windowStarts = windowStarts;
+        this.windowEnds = windowEnds;
+        this.grid = grid;
+    }
+
+    public static DoctorSchedule compile(Doctor doctor) {
+        return compile(doctor.getAvailableTimes(), doctor.getSlotMinutes());
+    }
+
+    public static DoctorSchedule compile(List<String> availableTimes, Integer slotMinutes) {
+        int slot = slotMinutes != null && slotMinutes > 0 ? slotMinutes : Doctor.DEFAULT_SLOT_MINUTES;
+
+        List<int[]> windows = new ArrayList<>();
+        if (availableTimes != null) {
+            for (String entry : availableTimes) {
+                int[] window = parseWindow(entry);
+                if (window != null) {
+                    windows.add(window);
+                }
+            }
+        }
+        if (windows.isEmpty()) {
+            windows.add(new int[] {DEFAULT_WINDOW_START, DEFAULT_WINDOW_END});
+        }
+        windows.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        // Aneinandergrenzende oder überlappende Einträge ("09:00-10:00", "10:00-11:00") zu einem Fenster zusammenfassen
+        List<int[]> merged = new ArrayList<>();
+        for (int[] window : windows) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && window[0] <= last[1]) {
+                last[1] = Math.max(last[1], window[1]);
+            } else {
+                merged.add(new int[] {window[0], window[1]});
+            }
+        }
+
+        int[] starts = new int[merged.size()];
+        int[] ends = new int[merged.size()];
+        List<LocalTime> slotStarts = new ArrayList<>();
+        for (int i = 0; i < merged.size(); i++) {
+            starts[i] = merged.get(i)[0];
+            ends[i] = merged.get(i)[1];
+            for (int minute = starts[i]; minute + slot <= ends[i]; minute += slot) {
+                slotStarts.add(LocalTime.of(minute / 60, minute % 60));
+            }
+        }
+        return new DoctorSchedule(starts, ends, new SlotGrid(slotStarts.toArray(new LocalTime[0]), slot));
+    }
+
+    // "HH:mm-HH:mm"; ungültige Einträge werden ignoriert
+    private static int[] parseWindow(String entry) {
+        if (entry == null) {
+            return null;
+        }
+        String[] parts = entry.split("-");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            int start = SlotGrid.minuteOf(LocalTime.parse(parts[0].trim()));
+            String endText = parts[1].trim();
+            int end = "24:00".equals(endText) ? 24 * 60 : SlotGrid.minuteOf(LocalTime.parse(endText));
+            return start < end ? new int[] {start, end} : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public SlotGrid getGrid() {
+        return grid;
+    }
+
+    public int getSlotMinutes() {
+        return grid.getSlotMinutes();
+    }
+
+    // true, wenn [start, end) am selben Tag auf einem Slotbeginn startet und vollständig in einem Arbeitsfenster liegt
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start) || end.isAfter(start.toLocalDate().plusDays(1).atStartOfDay())) {
+            return false;
+        }
+        int startMinute = SlotGrid.minuteOf(start.toLocalTime());
+        if (start.getSecond() != 0 || start.getNano() != 0 || !isSlotStart(startMinute)) {
+            return false;
+        }
+        int endMinute = end.toLocalDate().equals(start.toLocalDate()) ? SlotGrid.minuteOf(end.toLocalTime()) : 24 * 60;
+        if (end.getSecond() != 0 || end.getNano() != 0) {
+            endMinute++;
+        }
+        int window = windowContaining(startMinute);
+        return window >= 0 && endMinute <= windowEnds[window];
+    }
+
+    // Gibt es einen Slot, der in [fromMinute, toMinute) beginnt? (für den AM/PM-Filter)
+    public boolean hasSlotStartingBetween(int fromMinute, int toMinute) {
+        int slot = grid.firstSlotEndingAfter(fromMinute);
+        while (slot < grid.size() && SlotGrid.minuteOf(grid.start(slot)) < fromMinute) {
+            slot++;
+        }
+        return slot < grid.size() && SlotGrid.minuteOf(grid.start(slot)) < toMinute;
+    }
+
+    private boolean isSlotStart(int minute) {
+        int slot = grid.firstSlotEndingAfter(minute);
+        return slot < grid.size() && SlotGrid.minuteOf(grid.start(slot)) == minute;
+    }
+
+    private int windowContaining(int minute) {
+        int low = 0;
+        int high = windowStarts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (minute < windowStarts[mid]) {
+                high = mid - 1;
+            } else if (minute >= windowEnds[mid]) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+
+// Hält pro Arzt den kompilierten DoctorSchedule; DoctorService entfernt Einträge bei Änderung oder Löschung
+@Component
+public class DoctorScheduleCache {
+    private final DoctorRepository doctorRepository;
+    private final Map<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+
+    public DoctorScheduleCache(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    // Für bereits geladene Ärzte (availableTimes wird bei Bedarf in Batches nachgeladen)
+    public DoctorSchedule get(Doctor doctor) {
+        return schedules.computeIfAbsent(doctor.getId(), id -> DoctorSchedule.compile(doctor));
+    }
+
+    // null, wenn der Arzt nicht existiert
+    public DoctorSchedule get(Long doctorId) {
+        DoctorSchedule schedule = schedules.get(doctorId);
+        if (schedule != null) {
+            return schedule;
+        }
+        return doctorRepository.findWithAvailableTimesById(doctorId)
+                .map(this::get)
+                .orElse(null);
+    }
+
+    // Erst nach dem Commit entfernen: sonst könnte ein paralleler Leser das alte Raster erneut cachen, und es bliebe
+    // bis zur nächsten Änderung stehen
+    public void evict(Long doctorId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedules.remove(doctorId);
+                }
+            });
+        } else {
+            schedules.remove(doctorId);
+        }
+    }
+}
@@ -2,67 +2,197 @@ package com.project.back_end.services;
 
 
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import com.project.back_end.models.Appointment;
+import com.project.back_end.DTO.AvailableSlotDTO;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.services.PasswordHashingService.HashingCapacityExceededException;
 
 
 @Service
 public class DoctorService {
+    private static final Logger log = LoggerFactory.getLogger(DoctorService.class);
+    private static final int OCCUPANCY_BATCH_SIZE = 1000;
+    // Obergrenze je Aufruf von deleteDoctors, damit eine Transaktion die Tabellen nicht zu lange sperrt
+    public static final int MAX_BULK_DELETE = 500;
+
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
-    private final PasswordEncoder passwordEncoder;
+    private final CredentialService credentialService;
     private final AppointmentService appointmentService;
+    private final DoctorScheduleCache scheduleCache;
+    private final RefreshTokenService refreshTokenService;
+    private final ResourceVersions resourceVersions;
+    private final PrescriptionService prescriptionService;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final OutboxService outboxService;
 
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
                          TokenService tokenService,
-                         PasswordEncoder passwordEncoder, 
-                         AppointmentService appointmentService) {
+                         CredentialService credentialService, 
+                         AppointmentService appointmentService,
+                         DoctorScheduleCache scheduleCache,
+                         RefreshTokenService refreshTokenService,
+                         ResourceVersions resourceVersions,
+                         PrescriptionService prescriptionService,
+                         ArchivedAppointmentRepository archivedAppointmentRepository,
+                         OutboxService outboxService) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
-        this.passwordEncoder = passwordEncoder;
+        this.credentialService = credentialService;
         this.appointmentService = appointmentService;
+        this.scheduleCache = scheduleCache;
+        this.refreshTokenService = refreshTokenService;
+        this.resourceVersions = resourceVersions;
+        this.prescriptionService = prescriptionService;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.outboxService = outboxService;
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        List<Appointment> appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, date);
-        java.util.Set<LocalTime> bookedSlots = appointments.stream()
-                .map(appointment -> appointment.getAppointmentTime().toLocalTime())
-                .collect(Collectors.toSet());
-
-        java.util.List<String> allSlots = java.util.stream.IntStream.range(9, 17)
-                .mapToObj(hour -> String.format("%02d:00", hour))
-                .collect(Collectors.toList());
-
-        return allSlots.stream()
-                .filter(slot -> !bookedSlots.contains(java.time.LocalTime.parse(slot)))
-                .collect(Collectors.toList());
+        return getDoctorAvailabilityCalendar(doctorId, date, 1).get(date);
+    }
+
+    // Freie Slots über mehrere Tage mit einer einzigen Abfrage
+    @Transactional(readOnly = true)
+    public Map<LocalDate, List<String>> getDoctorAvailabilityCalendar(Long doctorId, LocalDate from, int days) {
+        return loadOccupancy(doctorId, from, days).toFreeSlotMap();
+    }
+
+    OccupancyCalendar loadOccupancy(Long doctorId, LocalDate from, int days) {
+        DoctorSchedule schedule = scheduleCache.get(doctorId);
+        if (schedule == null) {
+            schedule = DoctorSchedule.DEFAULT;
+        }
+        OccupancyCalendar calendar = new OccupancyCalendar(from, days, schedule.getGrid());
+        List<LocalDateTime> bookedTimes = appointmentRepository.findAppointmentTimesByDoctorId(
+                doctorId, from.atStartOfDay(), from.plusDays(days).atStartOfDay());
+        for (LocalDateTime bookedTime : bookedTimes) {
+            calendar.markBooked(bookedTime, schedule.getSlotMinutes());
+        }
+        return calendar;
+    }
+
+    // Früheste freie Slots über alle passenden Ärzte: eine Belegungsabfrage pro 1000 Ärzte,
+    // danach k-Wege-Merge über die Bitmaps mit einer PriorityQueue (ein Eintrag pro Arzt)
+    @Transactional(readOnly = true)
+    public List<AvailableSlotDTO> findEarliestAvailableSlots(String name, String specialty,
+                                                            LocalDate from, int days, int limit) {
+        List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(
+                name == null ? "" : name, specialty == null ? "" : specialty);
+        if (doctors.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, OccupancyCalendar> calendars = loadOccupancies(doctors, from, days);
+        LocalDateTime notBefore = LocalDateTime.now();
+
+        PriorityQueue<SlotCursor> queue = new PriorityQueue<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            OccupancyCalendar calendar = calendars.get(doctor.getId());
+            int bit = nextFreeNotBefore(calendar, 0, notBefore);
+            if (bit >= 0) {
+                queue.add(new SlotCursor(doctor, calendar, bit));
+            }
+        }
+
+        List<AvailableSlotDTO> slots = new ArrayList<>(limit);
+        while (slots.size() < limit && !queue.isEmpty()) {
+            SlotCursor cursor = queue.poll();
+            Doctor doctor = cursor.doctor;
+            slots.add(new AvailableSlotDTO(doctor.getId(), doctor.getName(), doctor.getSpecialty(), cursor.time));
+            int next = cursor.calendar.nextFree(cursor.bit + 1);
+            if (next >= 0) {
+                cursor.moveTo(next);
+                queue.add(cursor);
+            }
+        }
+        return slots;
+    }
+
+    Map<Long, OccupancyCalendar> loadOccupancies(List<Doctor> doctors, LocalDate from, int days) {
+        Map<Long, OccupancyCalendar> calendars = new HashMap<>(doctors.size() * 2);
+        List<Long> doctorIds = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            calendars.put(doctor.getId(), new OccupancyCalendar(from, days, scheduleCache.get(doctor).getGrid()));
+            doctorIds.add(doctor.getId());
+        }
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = from.plusDays(days).atStartOfDay();
+        for (int i = 0; i < doctorIds.size(); i += OCCUPANCY_BATCH_SIZE) {
+            List<Long> batch = doctorIds.subList(i, Math.min(i + OCCUPANCY_BATCH_SIZE, doctorIds.size()));
+            for (Object[] row : appointmentRepository.findAppointmentTimesByDoctorIds(batch, start, end)) {
+                OccupancyCalendar calendar = calendars.get((Long) row[0]);
+                calendar.markBooked((LocalDateTime) row[1], calendar.getSlotMinutes());
+            }
+        }
+        return calendars;
+    }
+
+    private static int nextFreeNotBefore(OccupancyCalendar calendar, int fromBit, LocalDateTime notBefore) {
+        int bit = calendar.nextFree(fromBit);
+        while (bit >= 0 && calendar.timeOf(bit).isBefore(notBefore)) {
+            bit = calendar.nextFree(bit + 1);
+        }
+        return bit;
+    }
+
+    private static final class SlotCursor implements Comparable<SlotCursor> {
+        private final Doctor doctor;
+        private final OccupancyCalendar calendar;
+        private int bit;
+        private LocalDateTime time;
+
+        SlotCursor(Doctor doctor, OccupancyCalendar calendar, int bit) {
+            this.doctor = doctor;
+            this.calendar = calendar;
+            moveTo(bit);
+        }
+
+        void moveTo(int bit) {
+            this.bit = bit;
+            this.time = calendar.timeOf(bit);
+        }
+
+        @Override
+        public int compareTo(SlotCursor other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Long.compare(doctor.getId(), other.doctor.getId());
+        }
     }
     @Transactional
     public int saveDoctor(Doctor doctor) {
         try {
-            if (doctorRepository.findByEmail(doctor.getEmail()) != null) {
+            if (doctorRepository.findByEmail(doctor.getEmail()).isPresent()) {
                 return -1; // Conflict
             }
-            // Passwort hashen, bevor es gespeichert wird
-            doctor.setPassword(passwordEncoder.encode(doctor.getPassword()));
+            // Passwort im Hashing-Pool hashen, bevor es gespeichert wird
+            doctor.setPassword(credentialService.hash(doctor.getPassword()));
             doctorRepository.save(doctor);
+            resourceVersions.bump(ResourceVersions.DOCTORS);
             return 1; // Success
+        } catch (HashingCapacityExceededException e) {
+            throw e; // 429 statt 500
         } catch (Exception e) {
             return 0; // Internal Error
         }
@@ -74,29 +204,86 @@ public class DoctorService {
                 return -1; // Doctor not found
             }
             doctorRepository.save(doctor);
+            // Der Name steht auch in den Patientenakten (PatientRecordService)
+            outboxService.record(OutboxService.DOCTOR, doctor.getId(), "UPDATED",
+                    Map.of("doctorId", doctor.getId(), "name", doctor.getName()));
+            scheduleCache.evict(doctor.getId());
+            resourceVersions.bump(ResourceVersions.DOCTORS);
             return 1; // Success
         } catch (Exception e) {
             return 0; // Internal Error
         }
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> getDoctors() {
         return doctorRepository.findAll();
     }
+    // Fehler werden nicht in einen Rückgabewert übersetzt: die Transaktion ist dann ohnehin rollback-only
     @Transactional
     public int deleteDoctor(Long doctorId) {
+        if (deleteDoctors(List.of(doctorId)).get("doctors") == 0) {
+            return -1; // Doctor not found
+        }
+        return 1; // Success
+    }
+    // Löscht Ärzte samt Terminen und Sprechzeiten mengenbasiert (wenige DELETE-Statements, keine Entities).
+    // Die Rezepte in Mongo werden erst nach dem Commit entfernt: ein Rollback soll keine Rezepte kosten. Verbindlich
+    // ist das Outbox-Ereignis DOCTOR DELETED mit den Termin-IDs (PrescriptionService, wird bei Fehlern wiederholt);
+    // das Löschen direkt nach dem Commit ist nur der schnelle Weg und darf den Aufrufer nicht mehr scheitern lassen.
+    @Transactional
+    public Map<String, Integer> deleteDoctors(Collection<Long> doctorIds) {
+        if (doctorIds.size() > MAX_BULK_DELETE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DELETE + " doctor ids per request.");
+        }
+        List<Long> existing = doctorRepository.findExistingIds(doctorIds);
+        if (existing.isEmpty()) {
+            return Map.of("doctors", 0, "appointments", 0);
+        }
+        Map<Long, List<Long>> appointmentIdsByDoctor = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>(appointmentRepository.findDoctorAndIdsByDoctorIds(existing));
+        rows.addAll(archivedAppointmentRepository.findDoctorAndIdsByDoctorIds(existing));
+        for (Object[] row : rows) {
+            appointmentIdsByDoctor.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add((Long) row[1]);
+        }
+        int appointments = appointmentRepository.deleteByDoctorIds(existing)
+                + archivedAppointmentRepository.deleteByDoctorIds(existing);
+        doctorRepository.deleteAvailableTimesByDoctorIds(existing);
+        int doctors = doctorRepository.deleteByIds(existing);
+        for (Long doctorId : existing) {
+            scheduleCache.evict(doctorId);
+            // Bereits ausgestellte Tokens des gelöschten Arztes ungültig machen
+            tokenService.revokeAccount("DOCTOR", doctorId);
+            // ein Ereignis je Arzt statt je Termin; Empfänger verwerfen alles mit dieser doctorId
+            outboxService.record(OutboxService.DOCTOR, doctorId, "DELETED", Map.of("doctorId", doctorId,
+                    "appointmentIds", appointmentIdsByDoctor.getOrDefault(doctorId, List.of())));
+        }
+        resourceVersions.bump(ResourceVersions.DOCTORS);
+        resourceVersions.bump(ResourceVersions.APPOINTMENTS);
+        List<Long> appointmentIds = rows.stream().map(row -> (Long) row[1]).toList();
+        afterCommit(() -> prescriptionService.deleteByAppointmentIds(appointmentIds));
+        return Map.of("doctors", doctors, "appointments", appointments);
+    }
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runLogged(action);
+                }
+            });
+        } else {
+            runLogged(action);
+        }
+    }
+    // Nach dem Commit ist der Arzt gelöscht; ein Mongo-Fehler holt das Outbox-Ereignis nach
+    private static void runLogged(Runnable action) {
         try {
-            if (!doctorRepository.findById(doctorId).isPresent()) {
-                return -1; // Doctor not found
-            }
-            appointmentRepository.deleteAllByDoctor_Id(doctorId);
-            doctorRepository.deleteById(doctorId);
-            return 1; // Success
-        } catch (Exception e) {
-            return 0; // Internal Error
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Cleanup after commit failed, outbox event DOCTOR DELETED will retry", e);
         }
     }
-    @Transactional(readOnly = true)
+    @Transactional
     public Map<String, Object> validateDoctor(String email, String password) {
         Map<String, Object> response = new HashMap<>();
 
@@ -108,7 +295,7 @@ public class DoctorService {
 
         try {
             Optional<Doctor> doctorOpt = doctorRepository.findByEmail(email);
-            if (doctorOpt == null) {
+            if (doctorOpt.isEmpty()) {
                 response.put("status", "error");
                 response.put("message", "Arzt nicht gefunden.");
                 return response;
@@ -116,23 +303,27 @@ public class DoctorService {
 
             Doctor doctor = doctorOpt.get();
 
-            if (!passwordEncoder.matches(password, doctor.getPassword())) {
+            if (!credentialService.verify(password, doctor.getPassword(), hash -> {
+                doctor.setPassword(hash);
+                doctorRepository.save(doctor);
+            })) {
                 response.put("status", "error");
                 response.put("message", "wrong password.");
                 return response;
             }
 
             // doctor.getId() ist ein primitiver long-Wert und kann nicht null sein!
-            Map<String, String> claims = new HashMap<>();
-            claims.put("role", "DOCTOR");
-            claims.put("doctorId", String.valueOf(doctor.getId()));  // Sicher, da long nie null ist
+            Map<String, String> claims = TokenService.claimsFor("DOCTOR", doctor.getId());
 
             String token = tokenService.generateToken(email, claims);
 
             response.put("status", "success");
             response.put("token", token);
+            response.put("refreshToken", refreshTokenService.issue("DOCTOR", doctor.getId(), email));
             response.put("doctorId", doctor.getId());
 
+        } catch (HashingCapacityExceededException e) {
+            throw e; // 429 statt 500
         } catch (Exception e) {
             response.put("status", "error");
             response.put("message", "internal server error.");
@@ -142,57 +333,53 @@ public class DoctorService {
     }
 
 
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> findDoctorByName(String name) {
         return doctorRepository.findByNameContainingIgnoreCase(name);
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorsByNameSpecilityandTime(String name, String specialty, String time) {
         java.util.List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(name, specialty);
         return filterDoctorByTime(doctors, time);
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Doctor> filterDoctorByTime(List<Doctor> doctors, String time) {
 
+        int fromMinute;
+        int toMinute;
+        if ("AM".equalsIgnoreCase(time)) {
+            fromMinute = 9 * 60;
+            toMinute = 12 * 60;
+        } else if ("PM".equalsIgnoreCase(time)) {
+            fromMinute = 12 * 60;
+            toMinute = 17 * 60;
+        } else {
+            return List.of();
+        }
         return doctors.stream()
-            .filter(doctor ->
-                doctor.getAvailableTimes().stream().anyMatch(slot -> {
-                    // Slot-Format: "09:00-10:00"
-                    String startTimeStr = slot.split("-")[0];
-                    LocalTime startTime = LocalTime.parse(startTimeStr);
-
-                    int hour = startTime.getHour();
-
-                    if ("AM".equalsIgnoreCase(time)) {
-                        return hour >= 9 && hour < 12;
-                    } else if ("PM".equalsIgnoreCase(time)) {
-                        return hour >= 12 && hour < 17;
-                    }
-                    return false;
-                })
-            )
+            .filter(doctor -> scheduleCache.get(doctor).hasSlotStartingBetween(fromMinute, toMinute))
             .collect(Collectors.toList());
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorByNameAndTime(String name, String time) {
         java.util.List<Doctor> doctors = doctorRepository.findByNameContainingIgnoreCase(name);
         return filterDoctorByTime(doctors, time);
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorByNameAndSpecility(String name, String specialty) {
         return doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase(name, specialty);
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorByTimeAndSpecility(String specialty, String time) {
         java.util.List<Doctor> doctors = doctorRepository.findBySpecialtyContainingIgnoreCase(specialty);
         return filterDoctorByTime(doctors, time);
     }
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorBySpecility(String specialty) {
         return doctorRepository.findBySpecialtyContainingIgnoreCase(specialty);
     }   
-    @Transactional
+    @Transactional(readOnly = true)
     public java.util.List<Doctor> filterDoctorsByTime(String time) {
         java.util.List<Doctor> doctors = doctorRepository.findAll();
         return filterDoctorByTime(doctors, time);
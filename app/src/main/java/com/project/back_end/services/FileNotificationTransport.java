@@ -0,0 +1,34 @@
+package com.project.back_end.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Ersatz für SMTP in Entwicklung und Tests: jede Nachricht wird als Block an eine Textdatei angehängt
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "file")
+public class FileNotificationTransport implements NotificationTransport {
+
+    private final Path path;
+
+    public FileNotificationTransport(@Value("${notification.file.path:logs/notifications.txt}") String path) {
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void send(String recipient, String subject, String body) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        String message = "Date: " + LocalDateTime.now() + "\nTo: " + recipient + "\nSubject: " + subject
+                + "\n\n" + body + "\n\n";
+        Files.writeString(path, message, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
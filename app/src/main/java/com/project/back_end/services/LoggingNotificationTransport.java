@@ -0,0 +1,19 @@
+package com.project.back_end.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Standard ohne Mailserver: Benachrichtigungen landen nur im Log
+@Component
+@ConditionalOnProperty(name = "notification.transport", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationTransport implements NotificationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationTransport.class);
+
+    @Override
+    public void send(String recipient, String subject, String body) {
+        log.info("Notification to {}: {}\n{}", recipient, subject, body);
+    }
+}
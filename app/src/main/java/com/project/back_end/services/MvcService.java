@@ -6,12 +6,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
@@ -20,19 +20,25 @@ import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.PasswordHashingService.HashingCapacityExceededException;
 
 
 
 
 @Service
 public class MvcService {
+    private static final long NO_APPOINTMENT = -1L;
+
     public MvcService(TokenService tokenService,
                       AdminRepository adminRepository,
                       DoctorRepository doctorRepository,
                       PatientRepository patientRepository,
                       DoctorService doctorService,
                       PatientService patientService,
-                      AppointmentRepository appointmentRepository) {
+                      AppointmentRepository appointmentRepository,
+                      DoctorScheduleCache scheduleCache,
+                      CredentialService credentialService,
+                      RefreshTokenService refreshTokenService) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
@@ -40,6 +46,9 @@ public class MvcService {
         this.doctorService = doctorService;
         this.patientService = patientService;
         this.appointmentRepository = appointmentRepository;
+        this.scheduleCache = scheduleCache;
+        this.credentialService = credentialService;
+        this.refreshTokenService = refreshTokenService;
     }
     public String validateToken(String token, String userRole) {
         boolean isValid = tokenService.validateToken(token, userRole);
@@ -62,18 +71,23 @@ public class MvcService {
 
             Admin admin = adminOpt.get();
 
-            if (!admin.getPassword().equals(password)) {
+            if (!credentialService.verify(password, admin.getPassword(), hash -> {
+                admin.setPassword(hash);
+                adminRepository.save(admin);
+            })) {
                 response.put("success", false);
                 response.put("message", "Incorrect password.");
                 return response;
             }
 
-            // Erfolg: Token generieren
-            String token = tokenService.generateToken(admin.getUsername());
+            // Erfolg: Token mit Rolle und ID generieren (Prüfung ohne Datenbankzugriff)
+            String token = tokenService.generateToken(admin.getUsername(),
+                    TokenService.claimsFor("ADMIN", admin.getId()));
 
             response.put("success", true);
             response.put("message", "Login successful.");
             response.put("token", token);
+            response.put("refreshToken", refreshTokenService.issue("ADMIN", admin.getId(), admin.getUsername()));
 
             // Optional: Claims hinzufügen (falls benötigt)
             Map<String, String> claims = tokenService.extractClaims(token);
@@ -81,6 +95,8 @@ public class MvcService {
 
             return response;
 
+        } catch (HashingCapacityExceededException e) {
+            throw e; // 429 statt 500
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Internal server error: " + e.getMessage());
@@ -108,18 +124,14 @@ public class MvcService {
         }
     }
     public int validateAppointment(long doctorId, LocalDate appointmentDate, LocalTime appointmentTime) {
-        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isPresent()) {
-            List<String> availableSlots = doctorService.getDoctorAvailability(doctorId, appointmentDate);
-            for (String slot : availableSlots) {
-                if (slot.equals(appointmentTime)) {
-                    return 1; // Valid appointment time
-                }
-            }
-            return 0; // Invalid appointment time
-        } else {
+        if (!doctorRepository.existsById(doctorId)) {
             return -1; // Doctor does not exist
         }
+        // Gleiche Überlappungsprüfung wie beim Verschieben; neue Termine schließen keinen Termin aus
+        if (isDoctorAvailable(doctorId, appointmentDate.atTime(appointmentTime), NO_APPOINTMENT)) {
+            return 1; // Valid appointment time
+        }
+        return 0; // Invalid appointment time
     }
     public boolean validatePatient(String email, String phoneNumber) {
         Optional<Patient> patientByEmail = patientRepository.findByEmail(email);
@@ -131,9 +143,14 @@ public class MvcService {
             Optional<Patient> patientOpt = patientRepository.findByEmail(email);
             if (patientOpt.isPresent()) {
                 Patient patient = patientOpt.get();
-                if (patient.getPassword().equals(password)) {
-                    String token = tokenService.generateToken(patient.getEmail());
-                    return ResponseEntity.ok().body(Map.of("token", token));
+                if (credentialService.verify(password, patient.getPassword(), hash -> {
+                    patient.setPassword(hash);
+                    patientRepository.save(patient);
+                })) {
+                    String token = tokenService.generateToken(patient.getEmail(),
+                            TokenService.claimsFor("PATIENT", patient.getId()));
+                    String refreshToken = refreshTokenService.issue("PATIENT", patient.getId(), patient.getEmail());
+                    return ResponseEntity.ok().body(Map.of("token", token, "refreshToken", refreshToken));
                 } else {
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                             .body("Unauthorized: Incorrect password.");
@@ -142,22 +159,58 @@ public class MvcService {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body("Unauthorized: Patient not found.");
             }
+        } catch (HashingCapacityExceededException e) {
+            throw e; // 429 statt 500
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Internal Server Error: " + e.getMessage());
         }
     }
     public List<Appointment> filterPatient(String token, String condition, String doctorName) {
-        String email = tokenService.extractEmail(token);
+        Long patientId = resolvePatientId(token);
+        if (patientId == null) {
+            return List.of();
+        }
+        if (condition != null && doctorName != null) {
+            return patientService.filterAppointmentsByConditionAndDoctor(patientId, condition, doctorName);
+        } else if (condition != null) {
+            return patientService.filterAppointmentsByCondition(patientId, condition);
+        } else if (doctorName != null) {
+            return patientService.filterAppointmentsByDoctor(patientId, doctorName);
+        } else {
+            return patientService.getAllAppointments(patientId);
+        }
+    }
+
+    // ?archived=true: dieselben Filter als AppointmentDTO, ergänzt um die archivierten Termine
+    public ResponseEntity<List<AppointmentDTO>> filterPatientWithArchive(String token, String condition,
+                                                                         String doctorName) {
+        Long patientId = resolvePatientId(token);
+        if (patientId == null) {
+            return ResponseEntity.ok(List.of());
+        }
         if (condition != null && doctorName != null) {
-            return patientService.filterAppointmentsByConditionAndDoctor(email, condition, doctorName);
+            return patientService.filterByDoctorAndCondition(patientId, doctorName, condition, true);
         } else if (condition != null) {
-            return patientService.filterAppointmentsByCondition(email, condition);
+            return patientService.filterByCondition(patientId, condition, true);
         } else if (doctorName != null) {
-            return patientService.filterAppointmentsByDoctor(email, doctorName);
+            return patientService.filterByDoctor(patientId, doctorName, true);
         } else {
-            return patientService.getAllAppointments(email);
+            return patientService.getPatientAppointment(patientId, true);
+        }
+    }
+
+    // Patienten-ID direkt aus dem Token; alte Tokens ohne "patientId"-Claim fallen auf die E-Mail-Suche zurück
+    public Long resolvePatientId(String token) {
+        Long patientId = tokenService.extractPatientId(token);
+        if (patientId != null) {
+            return patientId;
+        }
+        String email = tokenService.extractEmail(token);
+        if (email == null) {
+            return null;
         }
+        return patientRepository.findByEmail(email).map(Patient::getId).orElse(null);
     }
     
     private final TokenService tokenService;
@@ -167,24 +220,41 @@ public class MvcService {
     private final DoctorService doctorService;
     private final PatientService patientService;
     private final AppointmentRepository appointmentRepository;
+    private final DoctorScheduleCache scheduleCache;
+    private final CredentialService credentialService;
+    private final RefreshTokenService refreshTokenService;
 
 
+    // Termin der Länge eines Slots des Arztes ab startTime
+    public boolean isDoctorAvailable(Long doctorId, LocalDateTime startTime, long excludeAppointmentId) {
+        DoctorSchedule schedule = scheduleCache.get(doctorId);
+        if (schedule == null) {
+            return false;
+        }
+        return isDoctorAvailable(doctorId, startTime, startTime.plusMinutes(schedule.getSlotMinutes()), excludeAppointmentId);
+    }
+
     public boolean isDoctorAvailable(Long doctorId, LocalDateTime startTime, LocalDateTime endTime, long excludeAppointmentId) {
-    // Suche nach Terminen des Arztes im gewünschten Zeitfenster, außer dem aktuellen Termin
-    List<Appointment> conflictingAppointments = appointmentRepository
-        .findByDoctor_IdAndAppointmentTimeBetween(doctorId, startTime, endTime)
-        .stream()
-        .filter(appointment -> appointment.getId() != excludeAppointmentId)
-        .collect(Collectors.toList());
-
-    // Wenn es keine Konflikte gibt, ist der Arzt verfügbar
-    return conflictingAppointments.isEmpty();
+    DoctorSchedule schedule = scheduleCache.get(doctorId);
+    // Zeitfenster muss auf einem Slot beginnen und in einem Arbeitsfenster des Arztes liegen
+    if (schedule == null || !schedule.covers(startTime, endTime)) {
+        return false;
+    }
+    // Index über die Termine des Tages, inklusive solcher, die vom Vortag hineinragen
+    int slotMinutes = schedule.getSlotMinutes();
+    LocalDateTime dayStart = startTime.toLocalDate().atStartOfDay();
+    List<Object[]> appointments = appointmentRepository.findAppointmentSlotsByDoctorId(
+        doctorId, dayStart.minusMinutes(slotMinutes), dayStart.plusDays(1));
+    AppointmentIntervalIndex index = AppointmentIntervalIndex.build(appointments, slotMinutes, excludeAppointmentId);
+
+    // Wenn es keine Überlappung gibt, ist der Arzt verfügbar
+    return !index.overlaps(startTime, endTime);
 }
 // 1. **@Service Annotation**
 // The @Service annotation marks this class as a service component in Spring. This allows Spring to automatically detect it through component scanning
 // and manage its lifecycle, enabling it to be injected into controllers or other services using @Autowired or constructor injection.
     public Long getUserIdFromToken(String token) {
-        return Long.parseLong(tokenService.extractClaims(token).get("userId"));
+        return resolvePatientId(token);
     }
 
 // 2. **Constructor Injection for Dependencies**
@@ -244,6 +314,16 @@ public class MvcService {
 // - If no filters are provided, it retrieves all appointments for the patient.
 // This flexible method supports patient-specific querying and enhances user experience on the client side.
 
+    // Refresh-Token gegen neues Access-Token + neues Refresh-Token tauschen (Rotation)
+    public ResponseEntity<?> refreshToken(String refreshToken, String role) {
+        Map<String, String> tokens = refreshTokenService.rotate(refreshToken, role);
+        if (tokens == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("message", "Unauthorized: Invalid or expired refresh token."));
+        }
+        return ResponseEntity.ok(tokens);
+    }
+
     public Map<String, String> extractClaims(String token) {
         try {
             return tokenService.extractClaims(token); // Delegiert an TokenService
@@ -0,0 +1,239 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.PendingNotification;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PendingNotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Benachrichtigungen an Patienten, vollständig abseits des Request-Pfads: Buchungen, Änderungen und Absagen kommen
+// über die Outbox (OutboxRelay -> publish), Erinnerungen aus einem stündlichen Lauf. Beides wird zuerst in
+// pending_notification gespeichert – der Relay quittiert ein Ereignis also erst, wenn die Benachrichtigung dauerhaft
+// vorgemerkt ist, und offene oder noch zu wiederholende Nachrichten überstehen Neustarts. Der Versand läuft im Takt
+// von notification.window-ms und fasst alle fälligen Zeilen eines Patienten zu einer Nachricht zusammen.
+// Doppelte Zustellungen derselben Outbox-Nachricht (gleiche OutboxMessage.id) werden am sourceKey erkannt.
+@Service
+public class NotificationService implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    private final NotificationTransport transport;
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long retentionHours;
+    private final int queueCapacity;
+    private final long claimMillis;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    public NotificationService(NotificationTransport transport,
+                               PendingNotificationRepository pendingNotificationRepository,
+                               PatientRepository patientRepository,
+                               AppointmentRepository appointmentRepository,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${notification.batch-size:100}") int batchSize,
+                               @Value("${notification.max-attempts:5}") int maxAttempts,
+                               @Value("${notification.backoff-ms:1000}") long backoffMillis,
+                               @Value("${notification.retention-hours:168}") long retentionHours,
+                               @Value("${notification.queue-capacity:10000}") int queueCapacity,
+                               @Value("${notification.claim-ms:300000}") long claimMillis) {
+        this.transport = transport;
+        this.pendingNotificationRepository = pendingNotificationRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.retentionHours = retentionHours;
+        this.queueCapacity = queueCapacity;
+        this.claimMillis = claimMillis;
+        this.sent = Counter.builder("notification.sent").register(meterRegistry);
+        this.failed = Counter.builder("notification.failed").register(meterRegistry);
+        this.duplicates = Counter.builder("notification.duplicates").register(meterRegistry);
+        this.rejected = Counter.builder("notification.rejected").register(meterRegistry);
+        Gauge.builder("notification.queue", pendingNotificationRepository,
+                PendingNotificationRepository::countPending).register(meterRegistry);
+    }
+
+    // Fehler beim Speichern werden nicht geschluckt: der Relay stellt das Ereignis dann erneut zu
+    @Override
+    public void publish(OutboxMessage message) throws Exception {
+        if (!OutboxService.APPOINTMENT.equals(message.aggregateType())) {
+            return;
+        }
+        JsonNode payload = objectMapper.readTree(message.payload());
+        if (!payload.hasNonNull("patientId")) {
+            return; // z. B. STATUS_CHANGED/COMPLETED ohne Patientenbezug
+        }
+        String time = payload.hasNonNull("appointmentTime")
+                ? LocalDateTime.parse(payload.get("appointmentTime").asText()).format(TIME) : "";
+        String line = switch (message.eventType()) {
+            case "BOOKED" -> "Your appointment on " + time + " is confirmed.";
+            case "UPDATED" -> "Your appointment has been moved to " + time + ".";
+            case "CANCELED" -> "Your appointment on " + time + " has been canceled.";
+            default -> null;
+        };
+        if (line != null) {
+            enqueue("outbox:" + message.id(), payload.get("patientId").asLong(), line);
+        }
+    }
+
+    // Erinnerung für alle offenen Termine, die in 24 bis 25 Stunden beginnen. Der Schlüssel enthält den Beginn:
+    // ein wiederholter Lauf erinnert nicht doppelt, ein verschobener Termin bekommt eine neue Erinnerung. Bei voller
+    // Warteschlange entfallen die übrigen Erinnerungen dieses Laufs.
+    @Scheduled(cron = "${notification.reminder-cron:0 0 * * * *}")
+    public void remindUpcoming() {
+        LocalDateTime from = LocalDateTime.now().plusHours(24).withMinute(0).withSecond(0).withNano(0);
+        try {
+            for (AppointmentDTO appointment : appointmentRepository.findDtosScheduledBetween(from,
+                    from.plusHours(1))) {
+                enqueue("reminder:" + appointment.id() + ":" + appointment.appointmentTime(), appointment.patientId(),
+                        "Reminder: appointment with " + appointment.doctorName() + " on "
+                                + appointment.appointmentTime().format(TIME) + ".");
+            }
+        } catch (IllegalStateException e) {
+            log.warn("Reminders skipped: {}", e.getMessage());
+        }
+    }
+
+    // Obergrenze für offene Zeilen: bei einem längeren SMTP-Ausfall wächst pending_notification sonst unbegrenzt.
+    // Die Exception lässt den OutboxRelay das Ereignis mit Backoff wiederholen (drosselt also nur diesen Empfänger).
+    void enqueue(String sourceKey, Long patientId, String line) {
+        if (pendingNotificationRepository.existsBySourceKey(sourceKey)) {
+            duplicates.increment();
+            return;
+        }
+        if (pendingNotificationRepository.countPending() >= queueCapacity) {
+            rejected.increment();
+            throw new IllegalStateException("Notification queue full (" + queueCapacity + " pending)");
+        }
+        try {
+            pendingNotificationRepository.save(new PendingNotification(sourceKey, patientId, line, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            duplicates.increment(); // gleichzeitig von einer anderen Instanz angelegt
+        }
+    }
+
+    // Fällige Zeilen blockweise holen, nach Patient gruppieren, je Patient eine Nachricht. Der Versand läuft ohne
+    // offene Transaktion: claim() sperrt einen Block kurz, reserviert ihn für claimMillis (next_attempt_at) und
+    // committet; danach wird versendet und das Ergebnis in einer zweiten kurzen Transaktion festgehalten. Ein langsamer
+    // SMTP-Server hält so keine Zeilensperren und keine Verbindung. Stürzt die Instanz zwischen Versand und
+    // Festhalten ab, wird nach Ablauf der Reservierung erneut versendet (mindestens einmal).
+    @Scheduled(fixedDelayString = "${notification.window-ms:2000}")
+    public void drain() {
+        try {
+            Claim claim;
+            do {
+                claim = transactionTemplate.execute(status -> claim(LocalDateTime.now()));
+                List<Long> delivered = new ArrayList<>();
+                Map<Long, Exception> errors = new LinkedHashMap<>();
+                for (Message message : claim.messages()) {
+                    try {
+                        transport.send(message.recipient(), message.subject(), message.body());
+                        delivered.addAll(message.notificationIds());
+                        sent.increment();
+                    } catch (Exception e) {
+                        message.notificationIds().forEach(id -> errors.put(id, e));
+                    }
+                }
+                LocalDateTime now = LocalDateTime.now();
+                transactionTemplate.executeWithoutResult(status -> {
+                    pendingNotificationRepository.findAllById(delivered)
+                            .forEach(notification -> notification.setSentAt(now));
+                    pendingNotificationRepository.findAllById(errors.keySet())
+                            .forEach(notification -> retryLater(notification, now, errors.get(notification.getId())));
+                });
+            } while (claim.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Notification batch failed: {}", e.getMessage());
+        }
+    }
+
+    private Claim claim(LocalDateTime now) {
+        List<PendingNotification> due = pendingNotificationRepository.lockDue(now, batchSize);
+        Map<Long, List<PendingNotification>> byPatient = new LinkedHashMap<>();
+        for (PendingNotification notification : due) {
+            notification.setNextAttemptAt(now.plus(Duration.ofMillis(claimMillis)));
+            byPatient.computeIfAbsent(notification.getPatientId(), id -> new ArrayList<>()).add(notification);
+        }
+        List<Message> messages = new ArrayList<>(byPatient.size());
+        for (Patient patient : patientRepository.findAllById(byPatient.keySet())) {
+            List<PendingNotification> notifications = byPatient.remove(patient.getId());
+            List<String> lines = notifications.stream().map(PendingNotification::getLine).toList();
+            messages.add(new Message(notifications.stream().map(PendingNotification::getId).toList(),
+                    patient.getEmail(),
+                    lines.size() == 1 ? "Your appointment" : lines.size() + " updates on your appointments",
+                    "Dear " + patient.getName() + ",\n\n" + String.join("\n", lines)));
+        }
+        // Patient inzwischen gelöscht: nicht mehr zustellbar
+        byPatient.values().forEach(notifications -> notifications.forEach(notification -> {
+            notification.setFailedAt(now);
+            failed.increment();
+        }));
+        return new Claim(messages, due.size());
+    }
+
+    private record Message(List<Long> notificationIds, String recipient, String subject, String body) {
+    }
+
+    private record Claim(List<Message> messages, int size) {
+    }
+
+    // Erneuter Versuch nach backoff, 2 x backoff, 4 x backoff ...
+    private void retryLater(PendingNotification notification, LocalDateTime now, Exception e) {
+        int attempt = notification.getAttempts() + 1;
+        notification.setAttempts(attempt);
+        if (attempt >= maxAttempts) {
+            notification.setFailedAt(now);
+            failed.increment();
+            log.warn("Notification {} to patient {} given up after {} attempts: {}", notification.getId(),
+                    notification.getPatientId(), attempt, e.getMessage());
+            return;
+        }
+        notification.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis << (attempt - 1))));
+    }
+
+    @Scheduled(fixedDelayString = "${notification.prune-ms:3600000}")
+    public void pruneFinished() {
+        transactionTemplate.executeWithoutResult(status -> pendingNotificationRepository.deleteFinishedBefore(
+                LocalDateTime.now().minus(Duration.ofHours(retentionHours))));
+    }
+}
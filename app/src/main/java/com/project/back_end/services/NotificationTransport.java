@@ -0,0 +1,8 @@
+package com.project.back_end.services;
+
+// Versandweg für Benachrichtigungen (notification.transport). Eine Exception bedeutet: nicht zugestellt, der
+// NotificationService versucht es mit wachsendem Abstand erneut.
+public interface NotificationTransport {
+
+    void send(String recipient, String subject, String body) throws Exception;
+}
@@ -0,0 +1,84 @@
+package com.project.back_end.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Belegung eines Arztes über mehrere Tage als ein Bitmap: Bit (Tag * Slots pro Tag + Slot) ist gesetzt, wenn der Slot belegt ist
+public class OccupancyCalendar {
+    private final LocalDate from;
+    private final int days;
+    private final SlotGrid grid;
+    private final BitSet occupied;
+
+    public OccupancyCalendar(LocalDate from, int days, SlotGrid grid) {
+        this.from = from;
+        this.days = days;
+        this.grid = grid;
+        this.occupied = new BitSet(days * grid.size());
+    }
+
+    // Markiert alle Slots, die sich mit dem Termin [start, start + durationMinutes) überschneiden
+    public void markBooked(LocalDateTime start, int durationMinutes) {
+        long day = ChronoUnit.DAYS.between(from, start.toLocalDate());
+        if (day < 0 || day >= days) {
+            return;
+        }
+        int startMinute = SlotGrid.minuteOf(start.toLocalTime());
+        int endMinute = startMinute + durationMinutes;
+        int offset = (int) day * grid.size();
+        for (int slot = grid.firstSlotEndingAfter(startMinute);
+                slot < grid.size() && SlotGrid.minuteOf(grid.start(slot)) < endMinute; slot++) {
+            occupied.set(offset + slot);
+        }
+    }
+
+    public boolean isFree(int day, int slot) {
+        return !occupied.get(day * grid.size() + slot);
+    }
+
+    // Nächster freier Slot ab der Bit-Position (inklusive), -1 wenn keiner mehr im Zeitraum liegt
+    public int nextFree(int fromBit) {
+        int bit = occupied.nextClearBit(fromBit);
+        return bit < days * grid.size() ? bit : -1;
+    }
+
+    public LocalDateTime timeOf(int bit) {
+        return from.plusDays(bit / grid.size()).atTime(grid.start(bit % grid.size()));
+    }
+
+    public List<String> freeSlots(int day) {
+        List<String> slots = new ArrayList<>();
+        for (int slot = 0; slot < grid.size(); slot++) {
+            if (isFree(day, slot)) {
+                slots.add(grid.start(slot).toString());
+            }
+        }
+        return slots;
+    }
+
+    public Map<LocalDate, List<String>> toFreeSlotMap() {
+        Map<LocalDate, List<String>> calendar = new LinkedHashMap<>();
+        for (int day = 0; day < days; day++) {
+            calendar.put(from.plusDays(day), freeSlots(day));
+        }
+        return calendar;
+    }
+
+    public int getSlotMinutes() {
+        return grid.getSlotMinutes();
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
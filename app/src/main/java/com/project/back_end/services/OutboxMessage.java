@@ -0,0 +1,16 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+
+import com.project.back_end.models.OutboxEvent;
+
+// Unveränderliche Sicht auf einen Outbox-Eintrag, so wie ihn die Sinks erhalten. Zustellung mindestens einmal:
+// Empfänger erkennen Wiederholungen an der 'id'.
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload,
+                            LocalDateTime createdAt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
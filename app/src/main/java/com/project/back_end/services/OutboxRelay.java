@@ -0,0 +1,210 @@
+package com.project.back_end.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.project.back_end.models.OutboxDelivery;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxDeliveryRepository;
+import com.project.back_end.repo.OutboxEventRepository;
+
+// Liest fällige Outbox-Einträge blockweise in Id-Reihenfolge, gibt sie an alle Sinks weiter und markiert sie danach
+// als veröffentlicht – mindestens einmal, denn ein Absturz dazwischen führt zur erneuten Zustellung. Jeder Sink wird
+// einzeln wiederholt: scheitert ein Eintrag nur bei einem Sink, merkt sich outbox_delivery die übrigen, und die
+// Wiederholung geht nur an die fehlenden. Nach einem Fehlversuch wartet der Eintrag backoff-ms, 2 x backoff-ms,
+// 4 x backoff-ms ... (next_attempt_at); bis dahin werden die folgenden Einträge desselben Aggregats (Typ und Id;
+// Rezepte zählen zu ihrem Termin) zurückgehalten, andere laufen weiter (Reihenfolge pro Aggregat, nicht global).
+// Nach maxAttempts Fehlversuchen wird ein Eintrag als Dead Letter markiert und übersprungen, damit ein dauerhaft
+// scheiternder Eintrag sein Aggregat und den Relay nicht für immer aufhält (wieder freigeben:
+// OutboxService.requeueDeadLetters). Bei mehreren Instanzen nur auf einer aktivieren (outbox.relay.enabled), sonst
+// ist die Reihenfolge nicht garantiert.
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long retentionHours;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxDeliveryRepository outboxDeliveryRepository,
+                       List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-batches:20}") int maxBatches,
+                       @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${outbox.relay.backoff-ms:1000}") long backoffMillis,
+                       @Value("${outbox.retention-hours:168}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.retentionHours = retentionHours;
+    }
+
+    // Liefert die Zahl der veröffentlichten Einträge
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public synchronized int relay() {
+        int published = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            LocalDateTime now = LocalDateTime.now();
+            Set<String> blocked = new HashSet<>();
+            Map<Long, Set<String>> deliveredBefore = new HashMap<>();
+            List<OutboxEvent> events = transactionTemplate.execute(status -> {
+                // Aggregate mit einem wartenden Eintrag: spätere Einträge dürfen ihn nicht überholen
+                outboxEventRepository.findWaitingAggregates(now)
+                        .forEach(row -> blocked.add(orderingKey((String) row[0], (Long) row[1])));
+                List<OutboxEvent> due = outboxEventRepository.findUnpublished(now, PageRequest.of(0, batchSize));
+                List<Long> retried = due.stream().filter(event -> event.getAttempts() > 0).map(OutboxEvent::getId)
+                        .toList();
+                if (!retried.isEmpty()) {
+                    outboxDeliveryRepository.findConsumersByEventIds(retried).forEach(row -> deliveredBefore
+                            .computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]));
+                }
+                return due;
+            });
+            if (events.isEmpty()) {
+                break;
+            }
+            Set<Long> delivered = new LinkedHashSet<>();
+            Set<Long> failed = new LinkedHashSet<>();
+            Map<OutboxSink, List<Long>> received = new LinkedHashMap<>();
+            for (OutboxEvent event : events) {
+                String key = orderingKey(event.getAggregateType(), event.getAggregateId());
+                if (blocked.contains(key)) {
+                    continue;
+                }
+                OutboxMessage message = OutboxMessage.of(event);
+                Set<String> done = deliveredBefore.getOrDefault(event.getId(), Set.of());
+                boolean complete = true;
+                for (OutboxSink sink : sinks) {
+                    if (done.contains(sink.name())) {
+                        continue;
+                    }
+                    if (deliver(sink, message)) {
+                        received.computeIfAbsent(sink, s -> new ArrayList<>()).add(event.getId());
+                    } else {
+                        complete = false;
+                    }
+                }
+                if (complete) {
+                    delivered.add(event.getId());
+                } else {
+                    blocked.add(key);
+                    failed.add(event.getId());
+                }
+            }
+            // Scheitert flush(), hat dieser Sink keine Nachricht des Blocks sicher erhalten
+            received.entrySet().removeIf(entry -> {
+                if (flush(entry.getKey())) {
+                    return false;
+                }
+                entry.getValue().forEach(id -> {
+                    delivered.remove(id);
+                    failed.add(id);
+                });
+                return true;
+            });
+            LocalDateTime finished = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!delivered.isEmpty()) {
+                    outboxEventRepository.markPublished(delivered, finished);
+                    List<Long> partial = delivered.stream().filter(deliveredBefore::containsKey).toList();
+                    if (!partial.isEmpty()) {
+                        outboxDeliveryRepository.deleteByEventIds(partial);
+                    }
+                }
+                if (!failed.isEmpty()) {
+                    List<OutboxDelivery> progress = new ArrayList<>();
+                    received.forEach((sink, ids) -> ids.stream().filter(failed::contains)
+                            .forEach(id -> progress.add(new OutboxDelivery(id, sink.name(), finished))));
+                    outboxDeliveryRepository.saveAll(progress);
+                    outboxEventRepository.findAllById(failed).forEach(event -> retryLater(event, finished));
+                }
+            });
+            published += delivered.size();
+            // Bei Fehlern bis zum nächsten Lauf warten, statt dieselben Einträge sofort wieder zu lesen
+            if (events.size() < batchSize || !failed.isEmpty()) {
+                break;
+            }
+        }
+        return published;
+    }
+
+    // Nur veröffentlichte Einträge; Dead Letters bleiben bis zur manuellen Bereinigung stehen
+    @Scheduled(fixedDelayString = "${outbox.prune-ms:3600000}")
+    public void pruneExpired() {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deletePublishedBefore(
+                LocalDateTime.now().minus(Duration.ofHours(retentionHours))));
+    }
+
+    // Rezeptereignisse tragen die Termin-Id und werden mit den Terminereignissen geordnet
+    static String orderingKey(String aggregateType, Long aggregateId) {
+        String type = OutboxService.PRESCRIPTION.equals(aggregateType) ? OutboxService.APPOINTMENT : aggregateType;
+        return type + ":" + aggregateId;
+    }
+
+    // Erneuter Versuch nach backoff, 2 x backoff, 4 x backoff ...; nach maxAttempts Dead Letter
+    private void retryLater(OutboxEvent event, LocalDateTime now) {
+        int attempt = event.getAttempts() + 1;
+        event.setAttempts(attempt);
+        if (attempt >= maxAttempts) {
+            event.setFailedAt(now);
+            log.error("Outbox event {} ({} {} {}) failed {} times, moved to dead letters", event.getId(),
+                    event.getAggregateType(), event.getAggregateId(), event.getEventType(), attempt);
+            return;
+        }
+        event.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis << (attempt - 1))));
+    }
+
+    private static boolean deliver(OutboxSink sink, OutboxMessage message) {
+        try {
+            sink.publish(message);
+            return true;
+        } catch (Exception e) {
+            log.warn("Outbox event {} ({} {}) not delivered to {}: {}", message.id(), message.aggregateType(),
+                    message.aggregateId(), sink.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean flush(OutboxSink sink) {
+        try {
+            sink.flush();
+            return true;
+        } catch (Exception e) {
+            log.warn("Outbox sink {} flush failed: {}", sink.name(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxEventRepository;
+
+// Schreibt Ereignisse in die Outbox-Tabelle. Aufrufer mit laufender Transaktion (AppointmentService usw.) schreiben
+// damit atomar mit ihrer Änderung; ein Rollback verwirft auch das Ereignis. Zugestellt wird später vom OutboxRelay.
+@Service
+public class OutboxService {
+
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String PRESCRIPTION = "PRESCRIPTION";
+    public static final String DOCTOR = "DOCTOR";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional
+    public void record(String aggregateType, Long aggregateId, String eventType, Map<String, ?> payload) {
+        outboxEventRepository.save(event(aggregateType, aggregateId, eventType, payload, LocalDateTime.now()));
+    }
+
+    // Für Schreibvorgänge außerhalb der MySQL-Transaktion (Mongo), die der Aufrufer bei einem Fehler wiederholt:
+    // legt das Ereignis nur an, wenn es für dieses Aggregat noch keins dieses Typs gibt. Liefert true, wenn es neu ist.
+    // Bewusst ohne eigene Transaktion: zwei gleichzeitige Aufrufe kommen beide an existsByOnceKey vorbei, der
+    // eindeutige Index auf once_key lässt nur einen speichern, der andere landet im catch (wie
+    // NotificationService.enqueue). Nicht innerhalb einer laufenden Transaktion aufrufen, die wäre danach rollback-only.
+    public boolean recordOnce(String aggregateType, Long aggregateId, String eventType, Map<String, ?> payload) {
+        String onceKey = aggregateType + ":" + aggregateId + ":" + eventType;
+        if (outboxEventRepository.existsByOnceKey(onceKey)) {
+            return false;
+        }
+        OutboxEvent event = event(aggregateType, aggregateId, eventType, payload, LocalDateTime.now());
+        event.setOnceKey(onceKey);
+        try {
+            outboxEventRepository.save(event);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    // Ein Ereignis je Id, z. B. für Massenänderungen
+    @Transactional
+    public void recordAll(String aggregateType, Collection<Long> aggregateIds, String eventType,
+                          Function<Long, Map<String, ?>> payload) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(aggregateIds.size());
+        for (Long aggregateId : aggregateIds) {
+            events.add(event(aggregateType, aggregateId, eventType, payload.apply(aggregateId), now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    // Dead Letters wieder freigeben (Fehlversuche zurückgesetzt); ohne Ids alle. Empfänger, die den Eintrag schon
+    // erhalten haben (outbox_delivery), bekommen ihn nicht noch einmal. Spätere Einträge desselben Aggregats sind
+    // inzwischen meist zugestellt, der wieder freigegebene Eintrag kommt also nach ihnen an.
+    @Transactional
+    public int requeueDeadLetters(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return outboxEventRepository.requeueAllFailed();
+        }
+        return outboxEventRepository.requeueFailed(ids);
+    }
+
+    private OutboxEvent event(String aggregateType, Long aggregateId, String eventType, Map<String, ?> payload,
+                              LocalDateTime createdAt) {
+        try {
+            return new OutboxEvent(aggregateType, aggregateId, eventType, objectMapper.writeValueAsString(payload),
+                    createdAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event payload is not serializable", e);
+        }
+    }
+}
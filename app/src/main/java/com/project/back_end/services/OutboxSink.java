@@ -0,0 +1,22 @@
+package com.project.back_end.services;
+
+import org.springframework.util.ClassUtils;
+
+// Empfänger des OutboxRelay (Datei, PatientRecordService, PrescriptionService, NotificationService). publish() wird
+// je Nachricht in Id-Reihenfolge aufgerufen, flush() einmal am Ende eines Blocks; erst danach gilt eine Nachricht für
+// diesen Empfänger als zugestellt. Jeder Empfänger wird einzeln wiederholt: scheitert einer, erhalten die anderen die
+// Nachricht nicht noch einmal (Zustellstand in outbox_delivery). Eine Exception in publish() hält alle späteren
+// Nachrichten desselben Termins bis zum nächsten Versuch zurück, eine in flush() alle Nachrichten des Blocks für
+// diesen Empfänger.
+public interface OutboxSink {
+
+    void publish(OutboxMessage message) throws Exception;
+
+    default void flush() throws Exception {
+    }
+
+    // Schlüssel des Empfängers in outbox_delivery; ohne Spring-Proxy-Suffix, damit er Neustarts übersteht
+    default String name() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+}
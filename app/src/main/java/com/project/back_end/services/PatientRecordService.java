@@ -0,0 +1,295 @@
+package com.project.back_end.services;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.config.ReadOnlyRoutingDataSource;
+import com.project.back_end.models.PatientRecordEntry;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.PatientRecordRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+// Patientenakte als Lesemodell in Mongo (Collection patient_records, ein Dokument je Termin). Die Schreibpfade
+// bleiben unverändert; dieser Empfänger zieht das Modell aus den Outbox-Ereignissen nach. Jede Projektion setzt
+// Felder absolut (Upsert per Termin-Id), eine erneute Zustellung desselben Ereignisses ändert also nichts.
+// Für Bestandsdaten oder nach einem Ausfall zieht startRebuildAll() alle Akten blockweise im Hintergrund nach;
+// rebuild() baut die Akte eines Patienten komplett neu auf (und entfernt dabei auch Dokumente ohne Termin).
+@Service
+public class PatientRecordService implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientRecordService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    // Termine je Block beim Nachziehen aller Akten
+    static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final PatientRecordRepository patientRecordRepository;
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final ObjectMapper objectMapper;
+    // Ein Lauf von rebuildAll() je Instanz, im Hintergrund (Millionen Termine dauern länger als ein Request)
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "patient-record-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildAllRunning = new AtomicBoolean();
+
+    public PatientRecordService(PatientRecordRepository patientRecordRepository,
+                                MongoTemplate mongoTemplate,
+                                AppointmentRepository appointmentRepository,
+                                ArchivedAppointmentRepository archivedAppointmentRepository,
+                                PrescriptionRepository prescriptionRepository,
+                                ObjectMapper objectMapper) {
+        this.patientRecordRepository = patientRecordRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Index (patientId, appointmentTime) aus @CompoundIndex anlegen; ohne Mongo startet die Anwendung trotzdem
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations indexes = mongoTemplate.indexOps(PatientRecordEntry.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(PatientRecordEntry.class)
+                    .forEach(indexes::ensureIndex);
+        } catch (RuntimeException e) {
+            log.warn("Could not create patient record indexes: {}", e.getMessage());
+        }
+    }
+
+    // Fehler werden nicht geschluckt: der Relay stellt das Ereignis dann erneut zu
+    @Override
+    public void publish(OutboxMessage message) throws Exception {
+        Long id = message.aggregateId();
+        switch (message.aggregateType()) {
+            case OutboxService.APPOINTMENT -> {
+                switch (message.eventType()) {
+                    case "BOOKED", "UPDATED" -> appointmentRepository.findDtoById(id)
+                            .ifPresent(appointment -> mongoTemplate.upsert(byId(id), appointment(appointment),
+                                    PatientRecordEntry.class));
+                    case "CANCELED" -> patientRecordRepository.deleteById(id);
+                    case "STATUS_CHANGED", "COMPLETED" -> {
+                        JsonNode payload = objectMapper.readTree(message.payload());
+                        mongoTemplate.updateFirst(byId(id), new Update()
+                                .set("status", payload.get("status").asInt())
+                                .set("updatedAt", LocalDateTime.now()), PatientRecordEntry.class);
+                    }
+                    default -> {
+                    }
+                }
+            }
+            case OutboxService.PRESCRIPTION -> {
+                if ("PRESCRIPTION_SAVED".equals(message.eventType())) {
+                    String prescriptionId = objectMapper.readTree(message.payload()).get("prescriptionId").asText();
+                    prescriptionRepository.findById(prescriptionId)
+                            .ifPresent(prescription -> mongoTemplate.upsert(byId(id),
+                                    prescription(new Update().set("updatedAt", LocalDateTime.now()), prescription),
+                                    PatientRecordEntry.class));
+                }
+            }
+            // Termine eines gelöschten Arztes verschwinden ohne eigene Ereignisse, daher hier mit einem remove;
+            // ein geänderter Name gilt für alle Termine des Arztes
+            case OutboxService.DOCTOR -> {
+                switch (message.eventType()) {
+                    case "DELETED" -> mongoTemplate.remove(query(where("doctorId").is(id)), PatientRecordEntry.class);
+                    case "UPDATED" -> mongoTemplate.updateMulti(query(where("doctorId").is(id)), new Update()
+                            .set("doctorName", objectMapper.readTree(message.payload()).get("name").asText())
+                            .set("updatedAt", LocalDateTime.now()), PatientRecordEntry.class);
+                    default -> {
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Eine Seite der Akte, neueste Termine zuerst
+    public Map<String, Object> getRecord(Long patientId, int page, int size) {
+        Page<PatientRecordEntry> result = patientRecordRepository.findByPatientIdOrderByAppointmentTimeDesc(
+                patientId, PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", result.getContent());
+        body.put("page", result.getNumber());
+        body.put("size", result.getSize());
+        body.put("totalElements", result.getTotalElements());
+        body.put("totalPages", result.getTotalPages());
+        return body;
+    }
+
+    // Akte eines Patienten komplett neu schreiben: laufende und archivierte Termine, alle Rezepte in einer $in-Abfrage.
+    // Gelesen wird vom Primary (ein Replica-Stand könnte gerade gebuchte Termine noch nicht kennen). Die alten
+    // Dokumente werden vor dem Lesen entfernt: ein Termin, der danach gebucht wird, kommt über sein Ereignis erst nach
+    // dem Entfernen an und bleibt stehen.
+    public int rebuild(Long patientId) {
+        mongoTemplate.remove(query(where("patientId").is(patientId)), PatientRecordEntry.class);
+        List<AppointmentDTO> appointments = ReadOnlyRoutingDataSource.onPrimary(() -> {
+            List<AppointmentDTO> all = new ArrayList<>(archivedAppointmentRepository.findDtosByPatientId(patientId));
+            all.addAll(appointmentRepository.findDtosByPatientId(patientId));
+            return all;
+        });
+        if (appointments.isEmpty()) {
+            return 0;
+        }
+        upsertAll(appointments, prescriptionsByAppointment(appointments));
+        recheck(appointments);
+        log.info("Rebuilt patient record {} with {} appointments", patientId, appointments.size());
+        return appointments.size();
+    }
+
+    // Nachziehen aller Akten im Hintergrund starten; false, wenn auf dieser Instanz schon ein Lauf aktiv ist
+    public boolean startRebuildAll() {
+        if (!rebuildAllRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuildAll();
+                } catch (RuntimeException e) {
+                    log.error("Rebuilding patient records failed", e);
+                } finally {
+                    rebuildAllRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuildAllRunning.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    // Alle Akten nachziehen, z. B. nach einem Ausfall des Relays oder für Bestandsdaten: archivierte und laufende
+    // Termine in Blöcken nach Id, je Block eine Rezeptabfrage ($in) und ein Bulk-Upsert. Jeder Block liest in einer
+    // eigenen kurzen Abfrage vom Primary, der Lauf hält keine Transaktion offen und kann jederzeit wiederholt werden.
+    int rebuildAll() {
+        int total = backfill(afterId -> archivedAppointmentRepository.findDtosAfterId(afterId,
+                PageRequest.of(0, BACKFILL_BATCH_SIZE)));
+        total += backfill(afterId -> appointmentRepository.findDtosAfterId(afterId,
+                PageRequest.of(0, BACKFILL_BATCH_SIZE)));
+        log.info("Rebuilt patient records for {} appointments", total);
+        return total;
+    }
+
+    private int backfill(Function<Long, List<AppointmentDTO>> nextBatch) {
+        int total = 0;
+        long afterId = 0;
+        List<AppointmentDTO> batch;
+        do {
+            long from = afterId;
+            batch = ReadOnlyRoutingDataSource.onPrimary(() -> nextBatch.apply(from));
+            if (batch.isEmpty()) {
+                break;
+            }
+            upsertAll(batch, prescriptionsByAppointment(batch));
+            recheck(batch);
+            afterId = batch.get(batch.size() - 1).id();
+            total += batch.size();
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+        return total;
+    }
+
+    // Der Relay projiziert währenddessen weiter. Hat ein Ereignis ein Dokument zwischen unserem Lesen und Schreiben
+    // gelöscht oder geändert, hätte der Upsert den alten Stand zurückgebracht. Deshalb nach dem Schreiben erneut vom
+    // Primary lesen: verschwundene Termine entfernen, geänderte noch einmal schreiben. Jede Änderung, die danach
+    // committet wird, kommt über ihr Ereignis nach diesem Schreiben an.
+    private void recheck(List<AppointmentDTO> written) {
+        List<Long> ids = written.stream().map(AppointmentDTO::id).toList();
+        Map<Long, AppointmentDTO> current = ReadOnlyRoutingDataSource.onPrimary(() -> {
+            Map<Long, AppointmentDTO> byId = new HashMap<>();
+            archivedAppointmentRepository.findDtosByIds(ids).forEach(dto -> byId.put(dto.id(), dto));
+            appointmentRepository.findDtosByIds(ids).forEach(dto -> byId.put(dto.id(), dto));
+            return byId;
+        });
+        List<Long> vanished = ids.stream().filter(id -> !current.containsKey(id)).toList();
+        if (!vanished.isEmpty()) {
+            mongoTemplate.remove(query(where("_id").in(vanished)), PatientRecordEntry.class);
+        }
+        List<AppointmentDTO> changed = written.stream()
+                .filter(dto -> current.containsKey(dto.id()) && !current.get(dto.id()).equals(dto))
+                .map(dto -> current.get(dto.id()))
+                .toList();
+        if (!changed.isEmpty()) {
+            upsertAll(changed, prescriptionsByAppointment(changed));
+        }
+    }
+
+    private Map<Long, Prescription> prescriptionsByAppointment(List<AppointmentDTO> appointments) {
+        return prescriptionRepository.findByAppointmentIdIn(appointments.stream().map(AppointmentDTO::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Prescription::getAppointmentId, Function.identity(), (a, b) -> a));
+    }
+
+    private void upsertAll(List<AppointmentDTO> appointments, Map<Long, Prescription> prescriptions) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PatientRecordEntry.class);
+        for (AppointmentDTO appointment : appointments) {
+            Update update = appointment(appointment);
+            Prescription prescription = prescriptions.get(appointment.id());
+            if (prescription != null) {
+                prescription(update, prescription);
+            }
+            bulk.upsert(byId(appointment.id()), update);
+        }
+        bulk.execute();
+    }
+
+    private static Query byId(Long appointmentId) {
+        return query(where("_id").is(appointmentId));
+    }
+
+    // Terminfelder setzen, ein vorhandenes Rezept bleibt unberührt
+    static Update appointment(AppointmentDTO appointment) {
+        return new Update()
+                .set("patientId", appointment.patientId())
+                .set("doctorId", appointment.doctorId())
+                .set("doctorName", appointment.doctorName())
+                .set("appointmentTime", appointment.appointmentTime())
+                .set("status", appointment.status())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    static Update prescription(Update update, Prescription prescription) {
+        return update
+                .set("prescriptionId", prescription.getId())
+                .set("medication", prescription.getMedication())
+                .set("dosage", prescription.getDosage())
+                .set("doctorNotes", prescription.getDoctorNotes());
+    }
+}
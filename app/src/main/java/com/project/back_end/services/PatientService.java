@@ -1,7 +1,9 @@
 package com.project.back_end.services;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,19 +14,26 @@ import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
 @Service
 public class PatientService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final CredentialService credentialService;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
 
     public PatientService(PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          TokenService tokenService,
+                          CredentialService credentialService,
+                          ArchivedAppointmentRepository archivedAppointmentRepository) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.credentialService = credentialService;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
     }
 
     @Transactional
@@ -32,33 +41,34 @@ public class PatientService {
         if (patient == null) {
             throw new IllegalArgumentException("Patient must not be null");
         } else {
+        // Passwort nie im Klartext speichern
+        patient.setPassword(credentialService.hash(patient.getPassword()));
         Patient savedPatient = patientRepository.save(patient);
         return savedPatient;
         }
     }
 
 
-    @Transactional
-    public ResponseEntity<List<AppointmentDTO>> getPatientAppointment(Long patientId) {
+    // Archivierte Termine nur auf Wunsch: die kalte Tabelle wird sonst gar nicht angefragt
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppointmentDTO>> getPatientAppointment(Long patientId, boolean includeArchived) {
         try {
-            List<Appointment> appointments = appointmentRepository.findByPatient_Id(patientId);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> new AppointmentDTO(
-                            appointment.getId(),
-                            appointment.getDoctorId(),
-                            appointment.getPatientId(),
-                            appointment.getAppointmentTime(),
-                            appointment.getStatus()
-                    ))
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findDtosByPatientId(patientId);
+            if (includeArchived) {
+                appointmentDTOs = withArchived(appointmentDTOs,
+                        () -> archivedAppointmentRepository.findDtosByPatientId(patientId));
+            }
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    @Transactional
-    public ResponseEntity<List<AppointmentDTO>> filterByCondition(Long patientId, String condition) {
+    // Wie getPatientAppointment: mit includeArchived enthält "past" auch die archivierten Termine, sonst reicht die
+    // Liste nur bis archive.horizon-days zurück. "future" ist nie archiviert, das Archiv wird dann nicht angefragt.
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppointmentDTO>> filterByCondition(Long patientId, String condition,
+                                                                  boolean includeArchived) {
         try {
             int status;
             if (condition.equalsIgnoreCase("future")) {
@@ -68,43 +78,35 @@ public class PatientService {
             } else {
                 return ResponseEntity.badRequest().build();
             }
-            List<Appointment> appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(patientId, status);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> new AppointmentDTO(
-                            appointment.getId(),
-                            appointment.getDoctorId(),
-                            appointment.getPatientId(),
-                            appointment.getAppointmentTime(),
-                            appointment.getStatus()
-                    ))
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findDtosByPatientIdAndStatus(patientId, status);
+            if (includeArchived && status == 1) {
+                appointmentDTOs = withArchived(appointmentDTOs,
+                        () -> archivedAppointmentRepository.findDtosByPatientIdAndStatus(patientId, status));
+            }
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    @Transactional
-    public ResponseEntity<List<AppointmentDTO>> filterByDoctor(Long patientId, String doctorName) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppointmentDTO>> filterByDoctor(Long patientId, String doctorName,
+                                                               boolean includeArchived) {
         try {
-            List<Appointment> appointments = appointmentRepository.findByDoctor_NameAndPatient_Id(doctorName, patientId);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> new AppointmentDTO(
-                            appointment.getId(),
-                            appointment.getDoctorId(),
-                            appointment.getPatientId(),
-                            appointment.getAppointmentTime(),
-                            appointment.getStatus()
-                    ))
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findDtosByPatientIdAndDoctorName(patientId, doctorName);
+            if (includeArchived) {
+                appointmentDTOs = withArchived(appointmentDTOs,
+                        () -> archivedAppointmentRepository.findDtosByPatientIdAndDoctorName(patientId, doctorName));
+            }
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    @Transactional
-    public ResponseEntity<List<AppointmentDTO>> filterByDoctorAndCondition(Long patientId, String doctorName, String condition) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<AppointmentDTO>> filterByDoctorAndCondition(Long patientId, String doctorName, String condition,
+                                                                           boolean includeArchived) {
         try {
             int status;
             if (condition.equalsIgnoreCase("future")) {
@@ -114,16 +116,11 @@ public class PatientService {
             } else {
                 return ResponseEntity.badRequest().build();
             }
-            List<Appointment> appointments = appointmentRepository.findByDoctor_NameAndPatient_IdAndStatus(doctorName, patientId, status);
-            List<AppointmentDTO> appointmentDTOs = appointments.stream()
-                    .map(appointment -> new AppointmentDTO(
-                            appointment.getId(),
-                            appointment.getDoctorId(),
-                            appointment.getPatientId(),
-                            appointment.getAppointmentTime(),
-                            appointment.getStatus()
-                    ))
-                    .collect(Collectors.toList());
+            List<AppointmentDTO> appointmentDTOs = appointmentRepository.findDtosByPatientIdAndDoctorNameAndStatus(patientId, doctorName, status);
+            if (includeArchived && status == 1) {
+                appointmentDTOs = withArchived(appointmentDTOs, () -> archivedAppointmentRepository
+                        .findDtosByPatientIdAndDoctorNameAndStatus(patientId, doctorName, status));
+            }
             return ResponseEntity.ok(appointmentDTOs);
         } catch (Exception e) {
             e.printStackTrace();
@@ -144,59 +141,75 @@ public class PatientService {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-    @Transactional
-public List<Appointment> filterAppointmentsByConditionAndDoctor(String email, String condition, String doctorName) {
-    Optional<Patient> patientOpt = patientRepository.findByEmail(email);
-    if (patientOpt.isEmpty()) return List.of();
+    // Die folgenden Filter liefern Entities und lesen nur die Tabelle appointment: "past" reicht damit nur bis
+    // archive.horizon-days zurück. Vollständige Historie über MvcService.filterPatientWithArchive (?archived=true).
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByConditionAndDoctor(String email, String condition, String doctorName) {
+        Optional<Patient> patientOpt = patientRepository.findByEmail(email);
+        if (patientOpt.isEmpty()) return List.of();
+        return filterAppointmentsByConditionAndDoctor(patientOpt.get().getId(), condition, doctorName);
+    }
 
-    Patient patient = patientOpt.get();
-    int status;
-    if (condition.equalsIgnoreCase("future")) {
-        status = 0;
-    } else if (condition.equalsIgnoreCase("past")) {
-        status = 1;
-    } else {
-        throw new IllegalArgumentException("Invalid condition: " + condition);
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByConditionAndDoctor(Long patientId, String condition, String doctorName) {
+        int status = statusForCondition(condition);
+        return appointmentRepository.findByDoctor_NameAndPatient_IdAndStatus(doctorName, patientId, status);
     }
 
-    return appointmentRepository.findByDoctor_NameAndPatient_IdAndStatus(doctorName, patient.getId(), status);
-}
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByCondition(String email, String condition) {
+        Optional<Patient> patientOpt = patientRepository.findByEmail(email);
+        if (patientOpt.isEmpty()) return List.of();
+        return filterAppointmentsByCondition(patientOpt.get().getId(), condition);
+    }
 
-@Transactional
-public List<Appointment> filterAppointmentsByCondition(String email, String condition) {
-    Optional<Patient> patientOpt = patientRepository.findByEmail(email);
-    if (patientOpt.isEmpty()) return List.of();
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByCondition(Long patientId, String condition) {
+        int status = statusForCondition(condition);
+        return appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(patientId, status);
+    }
 
-    Patient patient = patientOpt.get();
-    int status;
-    if (condition.equalsIgnoreCase("future")) {
-        status = 0;
-    } else if (condition.equalsIgnoreCase("past")) {
-        status = 1;
-    } else {
-        throw new IllegalArgumentException("Invalid condition: " + condition);
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByDoctor(String email, String doctorName) {
+        Optional<Patient> patientOpt = patientRepository.findByEmail(email);
+        if (patientOpt.isEmpty()) return List.of();
+        return filterAppointmentsByDoctor(patientOpt.get().getId(), doctorName);
     }
 
-    return appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(patient.getId(), status);
-}
+    @Transactional(readOnly = true)
+    public List<Appointment> filterAppointmentsByDoctor(Long patientId, String doctorName) {
+        return appointmentRepository.findByDoctor_NameAndPatient_Id(doctorName, patientId);
+    }
 
-@Transactional
-public List<Appointment> filterAppointmentsByDoctor(String email, String doctorName) {
-    Optional<Patient> patientOpt = patientRepository.findByEmail(email);
-    if (patientOpt.isEmpty()) return List.of();
+    @Transactional(readOnly = true)
+    public List<Appointment> getAllAppointments(String email) {
+        Optional<Patient> patientOpt = patientRepository.findByEmail(email);
+        if (patientOpt.isEmpty()) return List.of();
+        return getAllAppointments(patientOpt.get().getId());
+    }
 
-    Patient patient = patientOpt.get();
-    return appointmentRepository.findByDoctor_NameAndPatient_Id(doctorName, patient.getId());
-}
+    @Transactional(readOnly = true)
+    public List<Appointment> getAllAppointments(Long patientId) {
+        return appointmentRepository.findByPatient_Id(patientId);
+    }
 
-@Transactional
-public List<Appointment> getAllAppointments(String email) {
-    Optional<Patient> patientOpt = patientRepository.findByEmail(email);
-    if (patientOpt.isEmpty()) return List.of();
+    // Archivierte und aktuelle Termine zusammen, zeitlich sortiert
+    private static List<AppointmentDTO> withArchived(List<AppointmentDTO> current,
+                                                     Supplier<List<AppointmentDTO>> archived) {
+        List<AppointmentDTO> history = new ArrayList<>(archived.get());
+        history.addAll(current);
+        history.sort(Comparator.comparing(AppointmentDTO::appointmentTime));
+        return history;
+    }
 
-    Patient patient = patientOpt.get();
-    return appointmentRepository.findByPatient_Id(patient.getId());
-}
+    private int statusForCondition(String condition) {
+        if (condition.equalsIgnoreCase("future")) {
+            return 0;
+        } else if (condition.equalsIgnoreCase("past")) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Invalid condition: " + condition);
+    }
 
 
 
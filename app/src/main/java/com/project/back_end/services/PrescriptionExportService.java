@@ -0,0 +1,205 @@
+package com.project.back_end.services;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+
+// Export aller Rezepte eines Zeitraums (Ausstellungsdatum) für den Apothekenabgleich. Rezepte haben kein eigenes
+// Datumsfeld; die ObjectId trägt aber den Erstellungszeitpunkt, der Zeitraum wird daher zu einem Bereich auf _id
+// (Primärindex, kein Sortieren im Speicher). Die Rezepte kommen über einen Mongo-Cursor, je Block von
+// export.batch-size Rezepten holt eine Abfrage die Terminzeiten aus appointment (und für ältere Termine aus
+// appointment_archive). Im Speicher liegt damit immer nur ein Block, egal wie groß der Zeitraum ist.
+@Service
+public class PrescriptionExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    private static final String CSV_HEADER =
+            "prescriptionId,issuedAt,appointmentId,appointmentTime,patientName,medication,dosage,doctorNotes\n";
+
+    private final MongoTemplate mongoTemplate;
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public PrescriptionExportService(MongoTemplate mongoTemplate,
+                                     AppointmentRepository appointmentRepository,
+                                     ArchivedAppointmentRepository archivedAppointmentRepository,
+                                     ObjectMapper objectMapper,
+                                     @Value("${export.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    // Schreibt die Rezepte von 'from' bis einschließlich 'to' und gibt ihre Anzahl zurück; nach jedem Block wird
+    // geflusht, damit der Client sofort Daten bekommt und nichts im Puffer wächst. Nach dem ersten Flush ist der
+    // Status 200 schon beim Client; ein späterer Fehler (Mongo, MySQL) kann ihn nicht mehr ändern. Deshalb endet jeder
+    // vollständige Export mit einer Schlusszeile samt Anzahl (trailer()); fehlt sie, ist die Datei abgebrochen.
+    public long export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException {
+        Query range = query(where("_id").gte(objectIdAt(from)).lt(objectIdAt(to.plusDays(1))))
+                .with(Sort.by("_id"))
+                .cursorBatchSize(batchSize);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        long count = 0;
+        List<Prescription> batch = new ArrayList<>(batchSize);
+        try (Stream<Prescription> cursor = mongoTemplate.stream(range, Prescription.class)) {
+            for (Prescription prescription : (Iterable<Prescription>) cursor::iterator) {
+                batch.add(prescription);
+                if (batch.size() == batchSize) {
+                    count += writeBatch(batch, format, out);
+                    batch.clear();
+                }
+            }
+            count += writeBatch(batch, format, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // z. B. Client hat die Verbindung geschlossen
+        }
+        out.write(trailer(format, count).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        return count;
+    }
+
+    // Letzte Zeile nur eines vollständigen Exports. NDJSON: ein eigenes Objekt, an "exportComplete" von den Rezepten
+    // zu unterscheiden; CSV: eine Kommentarzeile mit #, die der Apothekenabgleich überspringt.
+    static String trailer(Format format, long count) {
+        return format == Format.CSV
+                ? "# export complete: " + count + " prescriptions\n"
+                : "{\"exportComplete\":true,\"count\":" + count + "}\n";
+    }
+
+    private int writeBatch(List<Prescription> batch, Format format, OutputStream out) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, LocalDateTime> times = appointmentTimes(batch);
+        try {
+            for (Prescription prescription : batch) {
+                String line = format == Format.CSV ? csv(prescription, times) : json(prescription, times);
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return batch.size();
+    }
+
+    // Eine Abfrage je Block auf appointment, nur für die dort fehlenden Ids eine zweite auf das Archiv
+    private Map<Long, LocalDateTime> appointmentTimes(List<Prescription> batch) {
+        List<Long> ids = batch.stream().map(Prescription::getAppointmentId).distinct().toList();
+        Map<Long, LocalDateTime> times = new HashMap<>(ids.size() * 2);
+        for (Object[] row : appointmentRepository.findAppointmentTimesByIds(ids)) {
+            times.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        List<Long> missing = ids.stream().filter(id -> !times.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (Object[] row : archivedAppointmentRepository.findAppointmentTimesByIds(missing)) {
+                times.put((Long) row[0], (LocalDateTime) row[1]);
+            }
+        }
+        return times;
+    }
+
+    private String json(Prescription prescription, Map<Long, LocalDateTime> times) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("prescriptionId", prescription.getId());
+        row.put("issuedAt", issuedAt(prescription));
+        row.put("appointmentId", prescription.getAppointmentId());
+        row.put("appointmentTime", times.get(prescription.getAppointmentId()));
+        row.put("patientName", prescription.getPatientName());
+        row.put("medication", prescription.getMedication());
+        row.put("dosage", prescription.getDosage());
+        row.put("doctorNotes", prescription.getDoctorNotes());
+        try {
+            return objectMapper.writeValueAsString(row) + "\n";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(Prescription prescription, Map<Long, LocalDateTime> times) {
+        return String.join(",",
+                csvField(prescription.getId()),
+                csvField(issuedAt(prescription)),
+                csvField(prescription.getAppointmentId()),
+                csvField(times.get(prescription.getAppointmentId())),
+                csvField(prescription.getPatientName()),
+                csvField(prescription.getMedication()),
+                csvField(prescription.getDosage()),
+                csvField(prescription.getDoctorNotes())) + "\n";
+    }
+
+    // RFC 4180: Felder mit Komma, Anführungszeichen oder Zeilenumbruch in Anführungszeichen, " wird verdoppelt.
+    // Freitext wie doctorNotes kann mit =, +, -, @, Tab oder CR beginnen und würde in Excel/LibreOffice als Formel
+    // ausgeführt (CSV-Injection); solche Felder bekommen ein führendes ', das die Tabellenkalkulation als Text liest.
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static LocalDateTime issuedAt(Prescription prescription) {
+        if (prescription.getId() == null || !ObjectId.isValid(prescription.getId())) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(new ObjectId(prescription.getId()).getDate().toInstant(), ZoneId.systemDefault());
+    }
+
+    // Kleinste ObjectId einer Sekunde: Zeitstempel, Rest mit Nullen aufgefüllt
+    static ObjectId objectIdAt(LocalDate date) {
+        long seconds = date.atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+        return new ObjectId(String.format("%08x", seconds) + "0000000000000000");
+    }
+}
@@ -1,17 +1,65 @@
 package com.project.back_end.services;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.PrescriptionRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 @Service
-public class PrescriptionService {
+public class PrescriptionService implements OutboxSink {
+    // Obergrenze für die $in-Liste je deleteMany
+    static final int DELETE_BATCH_SIZE = 1000;
+
     public final PrescriptionRepository prescriptionRepository;
-    public PrescriptionService(PrescriptionRepository prescriptionRepository) {
+    private final MongoTemplate mongoTemplate;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    public PrescriptionService(PrescriptionRepository prescriptionRepository, MongoTemplate mongoTemplate,
+                               OutboxService outboxService, ObjectMapper objectMapper) {
         this.prescriptionRepository = prescriptionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Verbindliche Bereinigung nach dem Löschen eines Arztes: das Ereignis trägt die Termin-IDs, deleteMany ist
+    // wiederholbar. Fehler werden nicht geschluckt, damit der Relay erneut zustellt.
+    @Override
+    public void publish(OutboxMessage message) throws Exception {
+        if (!OutboxService.DOCTOR.equals(message.aggregateType()) || !"DELETED".equals(message.eventType())) {
+            return;
+        }
+        JsonNode appointmentIds = objectMapper.readTree(message.payload()).path("appointmentIds");
+        List<Long> ids = new ArrayList<>(appointmentIds.size());
+        appointmentIds.forEach(id -> ids.add(id.asLong()));
+        if (!ids.isEmpty()) {
+            deleteByAppointmentIds(ids);
+        }
+    }
+
+    // Löscht alle Rezepte der Termine mit je einem deleteMany pro Block, ohne Dokumente zu laden
+    public long deleteByAppointmentIds(Collection<Long> appointmentIds) {
+        List<Long> ids = List.copyOf(appointmentIds);
+        long deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + DELETE_BATCH_SIZE));
+            deleted += mongoTemplate.remove(Query.query(Criteria.where("appointmentId").in(batch)), Prescription.class)
+                    .getDeletedCount();
+        }
+        return deleted;
     }
     public ResponseEntity<?> savePrescription(Prescription prescription) {
         try {
@@ -21,10 +69,13 @@ public class PrescriptionService {
                     .findFirst()
                     .orElse(null);
             if (existingPrescription != null) {
+                // Wiederholung nach einem Fehler zwischen den beiden Schreibvorgängen: fehlendes Ereignis nachholen
+                recordSaved(existingPrescription);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body("Prescription already exists for this appointment.");
             }
-            prescriptionRepository.save(prescription);
+            Prescription saved = prescriptionRepository.save(prescription);
+            recordSaved(saved);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body("Prescription saved successfully.");
         } catch (Exception e) {
@@ -33,6 +84,16 @@ public class PrescriptionService {
                     .body("An error occurred while saving the prescription.");
         }
     }   
+    // Doppelter Schreibvorgang: Mongo kennt keine gemeinsame Transaktion mit MySQL, das Rezept wird zuerst gespeichert,
+    // das Ereignis danach in der Outbox. Scheitert der zweite Schritt, antwortet savePrescription mit 500 und das
+    // Rezept existiert ohne Ereignis; der nächste Speicherversuch für denselben Termin holt es nach. recordOnce legt
+    // dabei kein zweites Ereignis an. Nach Ablauf von outbox.retention-hours kann es erneut entstehen, Empfänger
+    // behandeln PRESCRIPTION_SAVED deshalb als Upsert.
+    private void recordSaved(Prescription prescription) {
+        outboxService.recordOnce(OutboxService.PRESCRIPTION, prescription.getAppointmentId(), "PRESCRIPTION_SAVED",
+                Map.of("appointmentId", prescription.getAppointmentId(), "prescriptionId", prescription.getId()));
+    }
+
     public ResponseEntity<?> getPrescription(Long appointmentId) {
         try {
             Prescription prescription = prescriptionRepository.findByAppointmentId(appointmentId)
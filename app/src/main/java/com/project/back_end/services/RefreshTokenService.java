@@ -0,0 +1,104 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project.back_end.models.RefreshToken;
+import com.project.back_end.repo.RefreshTokenRepository;
+
+// Langlebige, undurchsichtige Refresh-Tokens zu den kurzlebigen Access-Tokens. In der Datenbank steht nur der
+// SHA-256-Hash. Jedes Token ist einmal verwendbar und wird bei der Erneuerung durch ein neues derselben Familie
+// ersetzt; taucht ein bereits benutztes Token wieder auf, wird die ganze Familie gesperrt.
+@Service
+public class RefreshTokenService {
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenService tokenService;
+    private final AccountRevocationList revocationList;
+    private final long refreshTtlDays;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenService tokenService,
+                               AccountRevocationList revocationList,
+                               @Value("${jwt.refresh-ttl-days:14}") long refreshTtlDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenService = tokenService;
+        this.revocationList = revocationList;
+        this.refreshTtlDays = refreshTtlDays;
+    }
+
+    // Neues Refresh-Token (neue Familie) nach erfolgreichem Login
+    @Transactional
+    public String issue(String role, Long userId, String subject) {
+        return issue(UUID.randomUUID().toString(), role.toUpperCase(), userId, subject);
+    }
+
+    // Liefert token + refreshToken oder null, wenn das Token unbekannt, abgelaufen, gesperrt oder schon benutzt ist
+    @Transactional
+    public Map<String, String> rotate(String rawToken, String role) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return null;
+        }
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (stored.isEmpty()) {
+            return null;
+        }
+        RefreshToken current = stored.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (!current.getRole().equalsIgnoreCase(role) || current.isRevoked() || current.getExpiresAt().isBefore(now)
+                || revocationList.isRevoked(current.getRole(), current.getUserId())) {
+            return null;
+        }
+        if (refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            // Wiederverwendung: Token wurde vermutlich gestohlen, alle Tokens dieses Logins sperren
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return null;
+        }
+
+        Map<String, String> tokens = new HashMap<>();
+        tokens.put("token", tokenService.generateToken(current.getSubject(),
+                TokenService.claimsFor(current.getRole(), current.getUserId())));
+        tokens.put("refreshToken", issue(current.getFamilyId(), current.getRole(), current.getUserId(),
+                current.getSubject()));
+        return tokens;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.prune-ms:3600000}")
+    @Transactional
+    public void pruneExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String issue(String familyId, String role, Long userId, String subject) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, role, userId, subject,
+                LocalDateTime.now().plusDays(refreshTtlDays)));
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
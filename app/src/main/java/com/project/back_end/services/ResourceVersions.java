@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.config.ReadOnlyRoutingDataSource;
+import com.project.back_end.models.ResourceVersion;
+import com.project.back_end.repo.ResourceVersionRepository;
+
+// Versionszähler je Ressource für ETags: jeder Schreibzugriff in DoctorService/AppointmentService erhöht den
+// Zähler, GET-Endpunkte vergleichen nur noch If-None-Match mit der aktuellen Version – eine Abfrage per Primärschlüssel
+// statt Liste und Serialisierung. Die Zähler stehen in resource_version, damit ein Schreibzugriff auf einer Instanz
+// das ETag auf allen ändert und Neustarts keine alten Versionen wieder gültig machen.
+// Die ETags sind schwach (W/"..."): sie beschreiben den Inhalt, nicht die Bytes, und Tomcat komprimiert Antworten
+// mit starkem ETag nicht mit gzip.
+@Component
+public class ResourceVersions {
+
+    public static final String DOCTORS = "doctors";
+    public static final String APPOINTMENTS = "appointments";
+
+    private final ResourceVersionRepository resourceVersionRepository;
+
+    public ResourceVersions(ResourceVersionRepository resourceVersionRepository) {
+        this.resourceVersionRepository = resourceVersionRepository;
+    }
+
+    // Zeilen beim Start anlegen, damit bump() nur noch erhöhen muss; gleichzeitig startende Instanzen stören sich nicht
+    @EventListener(ApplicationReadyEvent.class)
+    public void createCounters() {
+        for (String resource : new String[] {DOCTORS, APPOINTMENTS}) {
+            if (!resourceVersionRepository.existsById(resource)) {
+                try {
+                    resourceVersionRepository.save(new ResourceVersion(resource));
+                } catch (DataIntegrityViolationException e) {
+                    // von einer anderen Instanz angelegt
+                }
+            }
+        }
+    }
+
+    // In der schreibenden Transaktion erhöhen, damit Daten und Version gemeinsam committet werden. Erst unmittelbar
+    // vor dem Commit: die Zeilensperre serialisiert alle Schreiber einer Ressource, soll aber nur kurz gehalten werden.
+    public void bump(String resource) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    increment(resource);
+                }
+            });
+        } else {
+            increment(resource);
+        }
+    }
+
+    private void increment(String resource) {
+        if (resourceVersionRepository.increment(resource) == 0) {
+            resourceVersionRepository.save(new ResourceVersion(resource, 1)); // Schreibzugriff vor createCounters()
+        }
+    }
+
+    // Vom Primärserver: ein nachlaufendes Replikat könnte sonst eine alte Version liefern
+    public long version(String resource) {
+        return ReadOnlyRoutingDataSource.onPrimary(() -> resourceVersionRepository.findVersion(resource)).orElse(0L);
+    }
+
+    // Schwaches ETag, optional mit weiterem Schlüssel (z. B. Arzt-ID bei benutzerbezogenen Listen)
+    public String etag(String resource, Object... scope) {
+        StringBuilder etag = new StringBuilder("W/\"").append(resource).append('-').append(version(resource));
+        for (Object part : scope) {
+            etag.append('-').append(part);
+        }
+        return etag.append('"').toString();
+    }
+}
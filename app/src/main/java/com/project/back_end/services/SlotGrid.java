@@ -0,0 +1,46 @@
+package com.project.back_end.services;
+
+import java.time.LocalTime;
+
+// Startzeiten der buchbaren Slots eines Tages; der Index eines Slots ist seine Bit-Position im OccupancyCalendar
+public class SlotGrid {
+
+    private final LocalTime[] starts;
+    private final int slotMinutes;
+
+    public SlotGrid(LocalTime[] starts, int slotMinutes) {
+        this.starts = starts;
+        this.slotMinutes = slotMinutes;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public LocalTime start(int index) {
+        return starts[index];
+    }
+
+    // Erster Slot, dessen Ende nach der angegebenen Minute des Tages liegt
+    public int firstSlotEndingAfter(int minuteOfDay) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minuteOf(starts[mid]) + slotMinutes <= minuteOfDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -22,24 +22,30 @@ public class TokenService {
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final AccountRevocationList revocationList;
     private final SecretKey signingKey;
     private final String jwtSecret;
+    private final long accessTtlMillis;
 
     public TokenService(AdminRepository adminRepository,
                         DoctorRepository doctorRepository,
                         PatientRepository patientRepository,
-                        @Value("${jwt.secret}") String jwtSecret) {
+                        AccountRevocationList revocationList,
+                        @Value("${jwt.secret}") String jwtSecret,
+                        @Value("${jwt.access-ttl-ms:900000}") long accessTtlMillis) {
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
+        this.revocationList = revocationList;
         this.jwtSecret = jwtSecret;
         this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.accessTtlMillis = accessTtlMillis;
     }
 
     // --- Token mit Claims generieren ---
     public String generateToken(String subject, Map<String, String> claims) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + 604800000L); // 7 Tage gültig
+        Date expiryDate = new Date(now.getTime() + accessTtlMillis); // kurzlebig, Erneuerung über Refresh-Token
 
         return Jwts.builder()
                 .claims(claims)      // Neu: .addClaims() statt .setClaims()
@@ -51,6 +57,19 @@ public class TokenService {
     }
 
 
+    // --- Claims eines Access-Tokens: Rolle und Benutzer-ID, dazu die rollenspezifische ID für ältere Aufrufer ---
+    public static Map<String, String> claimsFor(String role, Long userId) {
+        Map<String, String> claims = new HashMap<>();
+        claims.put("role", role.toUpperCase());
+        claims.put("userId", String.valueOf(userId));
+        switch (role.toUpperCase()) {
+            case "DOCTOR" -> claims.put("doctorId", String.valueOf(userId));
+            case "PATIENT" -> claims.put("patientId", String.valueOf(userId));
+            default -> { }
+        }
+        return claims;
+    }
+
     // --- Überladene Methode für Kompatibilität ---
     public String generateToken(String subject) {
         return generateToken(subject, new HashMap<>()); // Leere Claims
@@ -59,11 +78,7 @@ public class TokenService {
     // --- E-Mail aus Token extrahieren ---
     public String extractEmail(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parseClaims(token);
             return claims.getSubject();
         } catch (Exception e) {
             return null; // Token ungültig oder abgelaufen
@@ -73,11 +88,7 @@ public class TokenService {
     // --- Claims aus Token extrahieren ---
     public Map<String, String> extractClaims(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            Claims claims = parseClaims(token);
             Map<String, String> map = new HashMap<>(); // Alle Claims als Map
             for (Map.Entry<String, Object> entry : claims.entrySet()) {
                 map.put(entry.getKey(), entry.getValue().toString());
@@ -88,23 +99,82 @@ public class TokenService {
         }
     }
 
+    // --- Patienten-ID aus Token extrahieren (null bei alten Tokens ohne Claim) ---
+    public Long extractPatientId(String token) {
+        Map<String, String> claims = extractClaims(token);
+        if (claims == null || claims.get("patientId") == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(claims.get("patientId"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // --- Benutzer-ID aus Token extrahieren ("userId", bei älteren Tokens "doctorId"/"patientId") ---
+    public Long extractUserId(String token) {
+        try {
+            return userIdOf(parseClaims(token));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     // --- Token validieren (mit Rolle) ---
+    // Signatur, Ablauf und "role"-Claim genügen; gesperrte Konten kommen aus der Sperrliste im Speicher.
+    // Nur alte Tokens ohne "role"-Claim werden noch gegen die Datenbank geprüft.
     public boolean validateToken(String token, String role) {
         try {
-            String email = extractEmail(token);
-            if (email == null) return false;
-
-            return switch (role.toLowerCase()) {
-                case "admin" -> adminRepository.findByEmail(email).isPresent();
-                case "doctor" -> doctorRepository.findByEmail(email).isPresent();
-                case "patient" -> patientRepository.findByEmail(email).isPresent();
-                default -> false;
-            };
+            Claims claims = parseClaims(token);
+            String tokenRole = claims.get("role", String.class);
+            if (tokenRole == null) {
+                return validateLegacyToken(claims.getSubject(), role);
+            }
+            if (!tokenRole.equalsIgnoreCase(role)) {
+                return false;
+            }
+            Long userId = userIdOf(claims);
+            return userId != null && !revocationList.isRevoked(tokenRole, userId);
         } catch (Exception e) {
             return false;
         }
     }
 
+    // --- Konto sperren: alle bereits ausgestellten Tokens dieses Kontos werden abgelehnt ---
+    public void revokeAccount(String role, Long userId) {
+        revocationList.revoke(role, userId);
+    }
+
+    private boolean validateLegacyToken(String subject, String role) {
+        if (subject == null) return false;
+
+        return switch (role.toLowerCase()) {
+            case "admin" -> adminRepository.findByUsername(subject).isPresent();
+            case "doctor" -> doctorRepository.findByEmail(subject).isPresent();
+            case "patient" -> patientRepository.findByEmail(subject).isPresent();
+            default -> false;
+        };
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(signingKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static Long userIdOf(Claims claims) {
+        for (String claim : new String[] {"userId", "doctorId", "patientId"}) {
+            Object value = claims.get(claim);
+            if (value != null) {
+                return Long.parseLong(value.toString());
+            }
+        }
+        return null;
+    }
+
     // --- Token validieren (ohne Rolle) ---
     public boolean validateToken(String token) {
         try {
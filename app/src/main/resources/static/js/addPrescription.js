@@ -12,7 +12,7 @@ document.addEventListener('DOMContentLoaded', async () => {
   const urlParams = new URLSearchParams(window.location.search);
   const appointmentId = urlParams.get("appointmentId");
   const mode = urlParams.get("mode");
-  const token = localStorage.getItem("token");
+  const token = getToken();
   const patientName = urlParams.get("patientName")
 
   if (heading) {
@@ -59,7 +59,7 @@ function adminAddDoctor() {
   const password = document.getElementById('doctorPassword').value;
   const specialty = document.getElementById('doctorSpecialty').value;
   const availableTimes = Array.from(document.querySelectorAll('input[name="availableTimes"]:checked')).map(input => input.value);
-  const token = localStorage.getItem('authToken');
+  const token = getToken();
   if (!token) {
     alert('Authentication token not found. Please log in again.');
     return;
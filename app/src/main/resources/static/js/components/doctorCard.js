@@ -26,7 +26,7 @@ export function createDoctorCard(doctor) {
     deleteBtn.className = 'delete-btn';
     deleteBtn.textContent = 'Delete';
     deleteBtn.addEventListener('click', () => {
-      const token = localStorage.getItem('authToken');
+      const token = getToken();
       deleteDoctor(doctor.id, token)
         .then(() => {
           alert('Doctor deleted successfully.');
@@ -50,7 +50,7 @@ export function createDoctorCard(doctor) {
     bookBtn.className = 'book-btn';
     bookBtn.textContent = 'Book Now'; 
     bookBtn.addEventListener('click', () => {
-      const token = localStorage.getItem('authToken');  
+      const token = getToken();  
       if (!token) {
         alert('Authentication token not found. Please log in again.');
         window.location.href = '/';
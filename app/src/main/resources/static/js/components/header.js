@@ -12,7 +12,7 @@ function renderHeader() {
     return;
   }
   const role = localStorage.getItem("userRole");
-  const token = localStorage.getItem("token");
+  const token = getToken();
   let headerContent = `<header class="header">
     <div class="logo-section">
       <img src="../assets/images/logo/logo.png" alt="Hospital CRM Logo" class="logo-img">
@@ -67,11 +67,11 @@ function attachHeaderButtonListeners() {
 }
 function logout() {
   localStorage.removeItem("userRole");
-  localStorage.removeItem("token");
+  clearTokens();
   window.location.href = "/";
 }
 function logoutPatient() {
-  localStorage.removeItem("token");
+  clearTokens();
   window.location.href = "/pages/patientDashboard.html";
 }
 renderHeader();
@@ -114,7 +114,7 @@ renderHeader();
      * The `role` (user role like admin, patient, doctor) and `token` (authentication token) are retrieved from `localStorage` to determine the user's current session.
        ```javascript
        const role = localStorage.getItem("userRole");
-       const token = localStorage.getItem("token");
+       const token = getToken();
        ```
 
   5. Initialize Header Content
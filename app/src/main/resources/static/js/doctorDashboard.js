@@ -3,7 +3,7 @@ import { createPatientRow } from "./components/patientRow.js";
 import { renderContent } from "./utils/renderContent.js";
 const tableBody = document.getElementById("table-body");
 let selectedDate = new Date().toISOString().split("T")[0];
-const token = localStorage.getItem("authToken");
+const token = getToken();
 let patientName = null;
 document.getElementById("searchBar").addEventListener("input", () => {
   const input = document.getElementById("searchBar").value.trim();
@@ -62,7 +62,7 @@ export function showBookingOverlay(e, doctor, patient) {
   modalApp.querySelector(".confirm-booking").addEventListener("click", async () => {
     const date = modalApp.querySelector("#appointment-date").value;
     const time = modalApp.querySelector("#appointment-time").value;
-    const token = localStorage.getItem("token");
+    const token = getToken();
     const startTime = time.split('-')[0];
     const appointment = {
       doctor: { id: doctor.id },
@@ -2,7 +2,7 @@
 import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
 
 const tableBody = document.getElementById("patientTableBody");
-const token = localStorage.getItem("token");
+const token = getToken();
 
 let allAppointments = [];
 let filteredAppointments = [];
@@ -121,7 +121,7 @@ window.loginPatient = async function () {
       const result = await response.json();
       console.log(result);
       selectRole('loggedPatient');
-      localStorage.setItem('token', result.token)
+      setTokens(result);
       window.location.href = '/pages/loggedPatientDashboard.html';
     } else {
       alert('❌ Invalid credentials!');
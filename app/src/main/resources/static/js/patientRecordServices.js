@@ -3,7 +3,7 @@ import { getPatientAppointments } from "./services/patientServices.js";
 import { createPatientRecordRow } from './components/patientRecordRow.js';
 
 const tableBody = document.getElementById("patientTableBody");
-const token = localStorage.getItem("token");
+const token = getToken();
 
 const urlParams = new URLSearchParams(window.location.search);
 const patientId = urlParams.get("id");
@@ -2,7 +2,7 @@
 
 function selectRole(role) {
   setRole(role);
-  const token = localStorage.getItem('token');
+  const token = getToken();
   if (role === "admin") {
     if (token) {
       window.location.href = `/adminDashboard/${token}`;
@@ -4,8 +4,8 @@ const APPOINTMENT_API = `${API_BASE_URL}/appointments`;
 
 
 //This is for the doctor to get all the patient Appointments
-export async function getAllAppointments(date, patientName, token) {
-  const response = await fetch(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
+export async function getAllAppointments(date, patientName) {
+  const response = await fetchWithRefresh(token => `${APPOINTMENT_API}/${date}/${patientName}/${token}`);
   if (!response.ok) {
     throw new Error("Failed to fetch appointments");
   }
@@ -13,9 +13,9 @@ export async function getAllAppointments(date, patientName, token) {
   return await response.json();
 }
 
-export async function bookAppointment(appointment, token) {
+export async function bookAppointment(appointment) {
   try {
-    const response = await fetch(`${APPOINTMENT_API}/${token}`, {
+    const response = await fetchWithRefresh(token => `${APPOINTMENT_API}/${token}`, {
       method: "POST",
       headers: {
         "Content-Type": "application/json"
@@ -37,9 +37,9 @@ export async function bookAppointment(appointment, token) {
   }
 }
 
-export async function updateAppointment(appointment, token) {
+export async function updateAppointment(appointment) {
   try {
-    const response = await fetch(`${APPOINTMENT_API}/${token}`, {
+    const response = await fetchWithRefresh(token => `${APPOINTMENT_API}/${token}`, {
       method: "PUT",
       headers: {
         "Content-Type": "application/json"
@@ -12,9 +12,9 @@ export async function getDoctors() {
   }
 }
 
-export async function deleteDoctor(doctorId, token) {
+export async function deleteDoctor(doctorId) {
   try {
-    const response = await fetch(`${DOCTOR_API}/delete/${doctorId}/${token}`, {
+    const response = await fetchWithRefresh(token => `${DOCTOR_API}/delete/${doctorId}/${token}`, {
       method: 'DELETE'
     });
     const data = await response.json();
@@ -24,9 +24,9 @@ export async function deleteDoctor(doctorId, token) {
     return { success: false, message: 'Error deleting doctor' };
   } 
 }
-export async function saveDoctor(doctor, token) {
+export async function saveDoctor(doctor) {
   try {
-    const response = await fetch(`${DOCTOR_API}/save/${token}`, {
+    const response = await fetchWithRefresh(token => `${DOCTOR_API}/save/${token}`, {
       method: 'POST',
       headers: {
         'Content-Type': 'application/json'
@@ -28,7 +28,7 @@ window.adminLoginHandler = async function() {
     });
     if (response.ok) {
       const data = await response.json();
-      localStorage.setItem('authToken', data.token);
+      setTokens(data);
       selectRole('admin');
     } else {
       alert('Invalid admin credentials. Please try again.');
@@ -49,7 +49,7 @@ window.doctorLoginHandler = async function() {
     });
     if (response.ok) {
       const data = await response.json();
-      localStorage.setItem('authToken', data.token);
+      setTokens(data);
       selectRole('doctor');
     } else {
       alert('Invalid doctor credentials. Please try again.');
@@ -63,7 +63,7 @@ import { openModal } from '../utils/modal.js';
 export function renderHeader() {
   const headerDiv = document.getElementById("header");
   const role = localStorage.getItem("userRole") || "patient";
-  const token = localStorage.getItem("authToken");
+  const token = getToken();
   let headerContent = `
   <header>
     <div class="logo">
@@ -42,9 +42,9 @@ export async function patientLogin(data) {
 }
 
 // For getting patient data (name ,id , etc ). Used in booking appointments
-export async function getPatientData(token) {
+export async function getPatientData() {
   try {
-    const response = await fetch(`${PATIENT_API}/${token}`);
+    const response = await fetchWithRefresh(token => `${PATIENT_API}/${token}`);
     const data = await response.json();
     if (response.ok) return data.patient;
     return null;
@@ -57,7 +57,7 @@ export async function getPatientData(token) {
 // the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
 export async function getPatientAppointments(id, token, user) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${user}/${token}`);
+    const response = await fetchWithRefresh(current => `${PATIENT_API}/${id}/${user}/${current}`);
     const data = await response.json();
     console.log(data.appointments)
     if (response.ok) {
@@ -71,9 +71,9 @@ export async function getPatientAppointments(id, token, user) {
   }
 }
 
-export async function filterAppointments(condition, name, token) {
+export async function filterAppointments(condition, name) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
+    const response = await fetchWithRefresh(token => `${PATIENT_API}/filter/${condition}/${name}/${token}`, {
       method: "GET",
       headers: {
         "Content-Type": "application/json",
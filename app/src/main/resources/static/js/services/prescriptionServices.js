@@ -2,9 +2,9 @@
 import { API_BASE_URL } from '../config/config.js'
 
 const PRESCRITION_API = API_BASE_URL + "/prescription"
-export async function savePrescription(prescription, token) {
+export async function savePrescription(prescription) {
   try {
-    const response = await fetch(`${PRESCRITION_API}/${token}`, {
+    const response = await fetchWithRefresh(token => `${PRESCRITION_API}/${token}`, {
       method: "POST",
       headers: {
         "Content-type": "application/json"
@@ -20,9 +20,9 @@ export async function savePrescription(prescription, token) {
   }
 }
 
-export async function getPrescription(appointmentId, token) {
+export async function getPrescription(appointmentId) {
   try {
-    const response = await fetch(`${PRESCRITION_API}/${appointmentId}/${token}`, {
+    const response = await fetchWithRefresh(token => `${PRESCRITION_API}/${appointmentId}/${token}`, {
       method: "GET",
       headers: {
         "Content-Type": "application/json"
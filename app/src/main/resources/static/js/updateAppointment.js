@@ -4,7 +4,7 @@ import { getDoctors } from "../js/services/doctorServices.js";
 document.addEventListener("DOMContentLoaded", initializePage);
 
 async function initializePage() {
-  const token = localStorage.getItem("token"); // Assuming token is stored in localStorage
+  const token = getToken(); // Assuming token is stored in localStorage
   // Get appointmentId and patientId from the URL query parameters
   const urlParams = new URLSearchParams(window.location.search);
   const appointmentId = urlParams.get("appointmentId");
@@ -11,3 +11,70 @@
     localStorage.removeItem("userRole");
   }
   
+
+  // Access-Tokens sind kurzlebig (jwt.access-ttl-ms); das Refresh-Token aus dem Login holt ein neues Paar
+  function setTokens(data) {
+    localStorage.setItem("token", data.token);
+    if (data.refreshToken) {
+      localStorage.setItem("refreshToken", data.refreshToken);
+    }
+  }
+
+  function getToken() {
+    return getToken();
+  }
+
+  function clearTokens() {
+    localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
+  }
+
+  let pendingRefresh = null;
+
+  // Tauscht das Refresh-Token bei /{role}/refresh gegen ein neues Paar. Jedes Refresh-Token gilt nur einmal (ein
+  // zweites Vorzeigen sperrt die ganze Anmeldung), daher teilen sich gleichzeitige 401-Antworten einen Aufruf.
+  function refreshTokens() {
+    if (!pendingRefresh) {
+      pendingRefresh = exchangeRefreshToken().finally(() => { pendingRefresh = null; });
+    }
+    return pendingRefresh;
+  }
+
+  async function exchangeRefreshToken() {
+    const refreshToken = localStorage.getItem("refreshToken");
+    const role = getRole() === "loggedPatient" ? "patient" : getRole();
+    if (!refreshToken || !role) {
+      return null;
+    }
+    const response = await fetch(`/${role}/refresh`, {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify({ refreshToken })
+    });
+    if (!response.ok) {
+      return null;
+    }
+    const data = await response.json();
+    setTokens(data);
+    return data.token;
+  }
+
+  // fetch mit dem aktuellen Token; bei 401 einmal erneuern und wiederholen, sonst zurück zur Anmeldung.
+  // buildUrl erhält das Token, weil viele Routen es noch im Pfad erwarten.
+  async function fetchWithRefresh(buildUrl, options = {}) {
+    const used = getToken();
+    const response = await fetch(buildUrl(used), options);
+    if (response.status !== 401) {
+      return response;
+    }
+    // ein paralleler Aufruf hat schon erneuert
+    const token = getToken() !== used ? getToken() : await refreshTokens();
+    if (!token) {
+      clearTokens();
+      clearRole();
+      alert("Session expired. Please log in again.");
+      window.location.href = "/";
+      return response;
+    }
+    return fetch(buildUrl(token), options);
+  }
@@ -0,0 +1,65 @@
+package com.project.back_end.DTO;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Vergleicht die Bytes auf der Leitung (roh und gzip) einer Terminliste, voll gegen ?view=compact
+class CompactViewSizeTest {
+
+    private static final int ROWS = 500;
+
+    // wie der von Spring Boot konfigurierte Mapper: ISO-Datumswerte, Felder ohne @JsonView nicht im View
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void compactViewShrinksAppointmentList() throws IOException {
+        List<AppointmentDTO> appointments = appointments();
+        ObjectWriter full = mapper.writer();
+        ObjectWriter compact = mapper.writerWithView(Views.Compact.class);
+
+        byte[] fullJson = full.writeValueAsBytes(appointments);
+        byte[] compactJson = compact.writeValueAsBytes(appointments);
+        String compactText = new String(compactJson);
+
+        assertTrue(compactJson.length * 2 < fullJson.length);
+        assertTrue(gzip(compactJson) < gzip(fullJson));
+        assertTrue(compactText.contains("\"patientName\""));
+        assertFalse(compactText.contains("patientAddress"));
+        assertFalse(compactText.contains("endTime"));
+    }
+
+    private static List<AppointmentDTO> appointments() {
+        List<AppointmentDTO> appointments = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 9, 0);
+        for (long i = 0; i < ROWS; i++) {
+            appointments.add(new AppointmentDTO(i, 1L, "Dr. Emily Adams", 1000 + i, "Patient " + i,
+                    "patient" + i + "@example.com", "555000" + (1000 + i), i + " Main Street, Springfield",
+                    start.plusHours(i), 0));
+        }
+        return appointments;
+    }
+
+    private static int gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// Termin-DTOs für Service-Tests: immer Dr. Adams (3) und Jane Doe (42), es variieren nur Id, Beginn und Status
+public final class TestAppointments {
+
+    public static final long DOCTOR_ID = 3L;
+    public static final long PATIENT_ID = 42L;
+
+    private TestAppointments() {
+    }
+
+    public static AppointmentDTO appointment(long id, LocalDateTime appointmentTime, int status) {
+        return new AppointmentDTO(id, DOCTOR_ID, "Dr. Adams", PATIENT_ID, "Jane Doe", "jane@example.com", "555",
+                "Main St", appointmentTime, status);
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.back_end.benchmark;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Misst auf dem Zielhost, wie lange ein BCrypt-Hash je Kostenfaktor dauert, und schlägt den höchsten Faktor vor,
+// der die gewünschte Login-Latenz noch einhält. Kein Teil der Anwendung; Aufruf auf dem Server, z. B.:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:$(cat target/cp.txt) com.project.back_end.benchmark.BcryptCostCalibrator 250
+// Ausgabe sind die Messwerte je Faktor und die Zeile für application.properties (security.bcrypt.strength=...).
+public class BcryptCostCalibrator {
+
+    static final int MIN_STRENGTH = 4;
+    static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 5;
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        Map<Integer, Long> timings = measure(targetMillis, SAMPLES);
+        timings.forEach((strength, millis) -> System.out.println("strength " + strength + ": " + millis + " ms"));
+        System.out.println("security.bcrypt.strength=" + recommend(timings, targetMillis));
+    }
+
+    // Median je Kostenfaktor. Jeder weitere Faktor verdoppelt die Laufzeit, daher endet die Messung mit dem ersten
+    // Faktor über dem Ziel.
+    static Map<Integer, Long> measure(long targetMillis, int samples) {
+        Map<Integer, Long> timings = new LinkedHashMap<>();
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            long median = medianMillis(new BCryptPasswordEncoder(strength), samples);
+            timings.put(strength, median);
+            if (median > targetMillis) {
+                break;
+            }
+        }
+        return timings;
+    }
+
+    // Höchster gemessener Faktor innerhalb des Ziels, mindestens MIN_STRENGTH
+    static int recommend(Map<Integer, Long> timings, long targetMillis) {
+        int best = MIN_STRENGTH;
+        for (Map.Entry<Integer, Long> timing : timings.entrySet()) {
+            if (timing.getValue() <= targetMillis) {
+                best = Math.max(best, timing.getKey());
+            }
+        }
+        return best;
+    }
+
+    private static long medianMillis(BCryptPasswordEncoder encoder, int samples) {
+        String hash = encoder.encode("calibration-password");
+        long[] durations = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches("calibration-password", hash);
+            durations[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(durations);
+        return durations[samples / 2];
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.back_end.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lastvergleich Rezept-Lesen blockierend (/prescription) gegen reaktiv (/reactive/prescription) bei vielen
+// gleichzeitigen Anfragen. Misst Durchsatz und Latenz-Perzentile beim Client sowie, über Actuator, die Spitzen von
+// jvm.threads.live und tomcat.threads.busy beim Server. Kein JUnit-Test: braucht eine laufende Anwendung mit Mongo.
+// Die Metriken brauchen die Actuator-Anmeldung aus ACTUATOR_USER/ACTUATOR_PASSWORD (wie beim Start der Anwendung).
+// Damit der Unterschied sichtbar wird, Tomcat kleiner als die Parallelität starten:
+//   java -jar target/back-end-*.jar --prescription.reactive.enabled=true --server.tomcat.threads.max=50 \
+//        --server.tomcat.mbeanregistry.enabled=true
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+//        com.project.back_end.benchmark.PrescriptionReadLoad http://localhost:8080 <doctorToken> <appointmentId> 200 20000
+// Messergebnis blockierend gegen reaktiv: noch keines. Die Entwicklungsumgebung, in der der reaktive Pfad entstand,
+// hatte weder Mongo noch MySQL; die Zahlen (req/s, p50/p99, Spitzen jvm.threads.live und tomcat.threads.busy je
+// Pfad) hier eintragen, sobald der Lauf gegen eine Staging-Instanz gemacht ist. Bis dahin ist
+// prescription.reactive.enabled nicht als Verbesserung belegt und bleibt aus.
+public class PrescriptionReadLoad {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String actuatorAuth;
+
+    PrescriptionReadLoad(String baseUrl, int concurrency) {
+        this.baseUrl = baseUrl;
+        String user = System.getenv().getOrDefault("ACTUATOR_USER", "actuator");
+        String password = System.getenv().getOrDefault("ACTUATOR_PASSWORD", "");
+        this.actuatorAuth = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String token = args.length > 1 ? args[1] : "";
+        String appointmentId = args.length > 2 ? args[2] : "1";
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int requests = args.length > 4 ? Integer.parseInt(args[4]) : 20_000;
+
+        PrescriptionReadLoad load = new PrescriptionReadLoad(baseUrl, concurrency);
+        String suffix = "/" + appointmentId + "/" + token;
+        for (String path : List.of("/prescription", "/reactive/prescription")) {
+            load.run(path + suffix, concurrency, requests / 10); // Aufwärmen
+            load.run(path + suffix, concurrency, requests).print(path);
+        }
+        System.exit(0);
+    }
+
+    Result run(String path, int concurrency, int requests) throws Exception {
+        URI uri = URI.create(baseUrl + path);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        AtomicInteger errors = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(requests));
+        AtomicLong peakThreads = new AtomicLong();
+        AtomicLong peakBusy = new AtomicLong(-1);
+
+        // Serverseitige Threads nebenher abfragen; tomcat.threads.busy gibt es nur mit mbeanregistry
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakThreads.accumulateAndGet(metric("jvm.threads.live"), Math::max);
+            peakBusy.accumulateAndGet(metric("tomcat.threads.busy"), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(callers.submit(() -> {
+                HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+                while (remaining.getAndDecrement() > 0) {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - begin);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        callers.shutdown();
+        sampler.shutdownNow();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new Result(requests, errors.get(), elapsed, sorted, peakThreads.get(), peakBusy.get());
+    }
+
+    // Wert einer Actuator-Metrik, -1 wenn nicht verfügbar
+    private long metric(String name) {
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                            .header("Authorization", actuatorAuth).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = METRIC_VALUE.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    record Result(int requests, int errors, long elapsedNanos, List<Long> latencies, long peakThreads, long peakBusy) {
+
+        void print(String label) {
+            System.out.printf("%-24s %8.0f req/s  p50 %6.1f ms  p95 %6.1f ms  p99 %6.1f ms  errors %d  "
+                            + "jvm.threads.live max %d  tomcat.threads.busy max %s%n",
+                    label, requests / (elapsedNanos / 1e9), percentile(0.50), percentile(0.95), percentile(0.99),
+                    errors, peakThreads, peakBusy < 0 ? "n/a" : Long.toString(peakBusy));
+        }
+
+        private double percentile(double p) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.size() - 1, Math.ceil(p * latencies.size()) - 1);
+            return latencies.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+class AuthTokenArgumentResolverTest {
+
+    private final AuthTokenArgumentResolver resolver = new AuthTokenArgumentResolver();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void prefersBearerHeaderOverPathToken() throws Exception {
+        request.addHeader("Authorization", "Bearer header-token");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("token", "path-token"));
+
+        assertEquals("header-token", resolve());
+        assertNull(response.getHeader("Deprecation"));
+    }
+
+    @Test
+    void fallsBackToPathTokenAndMarksRouteDeprecated() throws Exception {
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("token", "path-token"));
+
+        assertEquals("path-token", resolve());
+        assertEquals("true", response.getHeader("Deprecation"));
+    }
+
+    @Test
+    void returnsNullWithoutAnyToken() throws Exception {
+        assertNull(resolve());
+    }
+
+    private Object resolve() throws Exception {
+        Method method = AuthTokenArgumentResolverTest.class.getDeclaredMethod("handler", String.class);
+        MethodParameter parameter = new MethodParameter(method, 0);
+        return resolver.resolveArgument(parameter, null, new ServletWebRequest(request, response), null);
+    }
+
+    @SuppressWarnings("unused")
+    private void handler(@AuthToken String token) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.back_end.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HikariPoolTunerTest {
+
+    @Test
+    void growsWhenThreadsWaitLongerThanHalfTheQueryTime() {
+        assertEquals(7, HikariPoolTuner.nextSize(5, 5, 20, 2, 12.0, 20.0, 3, 0));
+        assertEquals(20, HikariPoolTuner.nextSize(19, 5, 20, 2, 50.0, 20.0, 8, 0));
+    }
+
+    @Test
+    void keepsSizeWhenWaitIsModerate() {
+        assertEquals(10, HikariPoolTuner.nextSize(10, 5, 20, 2, 5.0, 20.0, 1, 0));
+    }
+
+    @Test
+    void shrinksIdlePoolButNotBelowMinimum() {
+        assertEquals(9, HikariPoolTuner.nextSize(10, 5, 20, 2, 0.1, 20.0, 0, 6));
+        assertEquals(5, HikariPoolTuner.nextSize(5, 5, 20, 2, 0.0, 20.0, 0, 5));
+    }
+
+    @Test
+    void replicaPoolHasItsOwnLimits() {
+        HikariPoolTuner tuner = new HikariPoolTuner(List.of(), new SimpleMeterRegistry(), 3, 5, 6, 9, 2);
+
+        assertEquals(new HikariPoolTuner.Limits(3, 5), tuner.limitsFor("primary"));
+        assertEquals(new HikariPoolTuner.Limits(3, 5), tuner.limitsFor("HikariPool-1"));
+        assertEquals(new HikariPoolTuner.Limits(6, 9), tuner.limitsFor("replica"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.back_end.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.project.back_end.repo.ReactivePrescriptionRepository;
+
+class ReactivePrescriptionConfigTest {
+
+    // Mongo muss nicht laufen: Client und Repository verbinden sich erst bei der ersten Abfrage
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MongoAutoConfiguration.class, MongoDataAutoConfiguration.class))
+            .withUserConfiguration(ReactivePrescriptionConfig.class)
+            .withPropertyValues("spring.data.mongodb.uri=mongodb://localhost:27017/prescriptions");
+
+    @Test
+    void reactiveStackIsOffByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(ReactivePrescriptionRepository.class);
+            assertThat(context).doesNotHaveBean(ReactiveMongoTemplate.class);
+        });
+    }
+
+    @Test
+    void reactiveClientAppliesTheSameSettingsCustomizersAsTheBlockingOne() {
+        AtomicInteger applied = new AtomicInteger();
+        contextRunner.withPropertyValues("prescription.reactive.enabled=true")
+                .withBean(MongoClientSettingsBuilderCustomizer.class,
+                        () -> builder -> applied.incrementAndGet())
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(applied).hasValue(2);   // blockierender und reaktiver Client
+                });
+    }
+
+    @Test
+    void reactiveRepositoryUsesConfiguredDatabase() {
+        contextRunner.withPropertyValues("prescription.reactive.enabled=true").run(context -> {
+            assertThat(context).hasSingleBean(ReactivePrescriptionRepository.class);
+            assertThat(context.getBean(ReactiveMongoTemplate.class).getMongoDatabase().block().getName())
+                    .isEqualTo("prescriptions");
+        });
+    }
+}
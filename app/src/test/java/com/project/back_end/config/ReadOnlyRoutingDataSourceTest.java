@@ -0,0 +1,72 @@
+package com.project.back_end.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Zwei getrennte H2-Datenbanken als Primärserver und Replikat
+class ReadOnlyRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadOnlyRoutingDataSource(primary, replica, meterRegistry));
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        // der Proxy holt beim ersten Zugriff einmal zusätzlich eine Verbindung, um die Standardeinstellungen auszulesen
+        jdbc.queryForObject("SELECT name FROM node", String.class);
+        double primaryBefore = routed("primary");
+
+        assertEquals("primary", readWrite.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class)));
+        assertEquals("replica", readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class)));
+        assertEquals("primary", jdbc.queryForObject("SELECT name FROM node", String.class));
+
+        assertEquals(1.0, routed("replica"));
+        assertEquals(primaryBefore + 2, routed("primary"));
+    }
+
+    @Test
+    void etagValidatedReadsStayOnPrimary() {
+        assertEquals("primary", ReadOnlyRoutingDataSource.onPrimary(() ->
+                readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class))));
+        assertEquals("replica", readOnly.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class)));
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("datasource.routed.connections").tag("target", target).counter().count();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
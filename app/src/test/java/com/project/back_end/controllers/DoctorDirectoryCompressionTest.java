@@ -0,0 +1,76 @@
+package com.project.back_end.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.ResourceVersionRepository;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.MvcService;
+import com.project.back_end.services.ResourceVersions;
+
+// Echter Tomcat mit den server.compression-Einstellungen aus application.properties: die Ärzteliste trägt ein ETag
+// und muss trotzdem gzip-komprimiert ausgeliefert werden
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DoctorDirectoryCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void directoryWithEtagIsCompressed() throws Exception {
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/doctor"))
+                        .header("Accept-Encoding", "gzip")
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("ETag").orElseThrow().startsWith("W/\""));
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    static class WebConfig {
+
+        @Bean
+        DoctorController doctorController() {
+            DoctorService doctorService = mock(DoctorService.class);
+            List<Doctor> doctors = new ArrayList<>();
+            for (long i = 1; i <= 50; i++) {
+                Doctor doctor = new Doctor();
+                doctor.setId(i);
+                doctor.setName("Dr. Emily Adams " + i);
+                doctor.setSpecialty("Cardiologist");
+                doctor.setEmail("adams" + i + "@example.com");
+                doctor.setPhone("5550001" + i);
+                doctors.add(doctor);
+            }
+            when(doctorService.getDoctors()).thenReturn(doctors);
+            return new DoctorController(doctorService, mock(MvcService.class), new ResourceVersions(mock(ResourceVersionRepository.class)));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.back_end.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.project.back_end.repo.ResourceVersionRepository;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.MvcService;
+import com.project.back_end.services.ResourceVersions;
+
+class DoctorDirectoryEtagTest {
+
+    private final DoctorService doctorService = mock(DoctorService.class);
+    private final ResourceVersionRepository repository = mock(ResourceVersionRepository.class);
+    private final ResourceVersions versions = new ResourceVersions(repository);
+    private final DoctorController controller = new DoctorController(doctorService, mock(MvcService.class), versions);
+
+    @Test
+    void unchangedDirectoryIsAnsweredWithoutLoadingDoctors() {
+        when(repository.findVersion(ResourceVersions.DOCTORS)).thenReturn(Optional.of(3L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/doctor");
+        request.addHeader("If-None-Match", versions.etag(ResourceVersions.DOCTORS));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(controller.getDoctor(null, new ServletWebRequest(request, response)));
+
+        assertEquals(304, response.getStatus());
+        verifyNoInteractions(doctorService);
+    }
+
+    @Test
+    void directoryChangedOnAnotherInstanceIsReloaded() {
+        when(repository.findVersion(ResourceVersions.DOCTORS)).thenReturn(Optional.of(3L));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/doctor");
+        request.addHeader("If-None-Match", versions.etag(ResourceVersions.DOCTORS));
+        when(repository.findVersion(ResourceVersions.DOCTORS)).thenReturn(Optional.of(4L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.getDoctor(null, new ServletWebRequest(request, response));
+
+        assertEquals(versions.etag(ResourceVersions.DOCTORS), response.getHeader("ETag"));
+        verify(doctorService).getDoctors();
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.services.AppointmentArchiveService;
+import com.project.back_end.services.ResourceVersions;
+
+class AppointmentArchiveTest extends JpaRepositoryTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Test
+    void movesOldCompletedAppointmentsInBatches() {
+        long[] ids = doctorAndPatient();
+        long doctorId = ids[0];
+        long patientId = ids[1];
+        LocalDateTime old = LocalDateTime.now().minusYears(2);
+        for (int i = 0; i < 7; i++) {
+            insertAppointment(doctorId, patientId, old.plusDays(i), 1);
+        }
+        insertAppointment(doctorId, patientId, old, 0);                              // nicht abgeschlossen
+        insertAppointment(doctorId, patientId, LocalDateTime.now().minusDays(3), 1); // jünger als der Horizont
+        insertAppointment(doctorId, patientId, LocalDateTime.now().plusDays(3), 0);
+        ResourceVersions versions = new ResourceVersions(resourceVersionRepository);
+        AppointmentArchiveService archive = new AppointmentArchiveService(appointmentRepository,
+                archivedAppointmentRepository, versions, transactionManager, 365, 3, 100);
+
+        assertEquals(7, archive.archiveCompleted());
+        entityManager.clear();
+
+        assertEquals(7, archivedAppointmentRepository.count());
+        assertEquals(3, appointmentRepository.count());
+        assertEquals(3, appointmentRepository.findDtosByPatientId(patientId).size());
+        List<AppointmentDTO> archived = archivedAppointmentRepository.findDtosByPatientId(patientId);
+        assertEquals(7, archived.size());
+        assertEquals("Dr. Emily Adams", archived.get(0).doctorName());
+        // "past"-Filter mit ?archived=true: aktuelle und archivierte abgeschlossene Termine
+        assertEquals(1, appointmentRepository.findDtosByPatientIdAndStatus(patientId, 1).size());
+        assertEquals(7, archivedAppointmentRepository.findDtosByPatientIdAndDoctorNameAndStatus(
+                patientId, "Dr. Emily Adams", 1).size());
+        assertEquals(0, archive.archiveCompleted());
+    }
+
+}
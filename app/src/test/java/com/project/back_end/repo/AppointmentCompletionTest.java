@@ -0,0 +1,122 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.services.AppointmentCompletionService;
+import com.project.back_end.services.AppointmentsCompletedEvent;
+import com.project.back_end.services.OutboxService;
+import com.project.back_end.services.ResourceVersions;
+
+class AppointmentCompletionTest extends JpaRepositoryTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Test
+    void completesElapsedAppointmentsInBatchesAndPublishesEvents() {
+        long[] ids = doctorAndPatient();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            insertAppointment(ids[0], ids[1], now.minusDays(1).plusMinutes(i), 0);
+        }
+        insertAppointment(ids[0], ids[1], now.minusMinutes(30), 0);   // läuft noch (60-Minuten-Slot)
+        insertAppointment(ids[0], ids[1], now.plusDays(1), 0);
+        insertAppointment(ids[0], ids[1], now.minusDays(2), 1);       // schon abgeschlossen
+        List<AppointmentsCompletedEvent> events = new ArrayList<>();
+        AppointmentCompletionService completion = completion(events, 2);
+
+        assertEquals(5, completion.completeElapsed());
+
+        assertEquals(3, events.size());
+        assertEquals(List.of(2, 2, 1), events.stream().map(e -> e.appointmentIds().size()).toList());
+        assertEquals(6, jdbc.queryForObject("SELECT COUNT(*) FROM appointment WHERE status = 1", Integer.class));
+        assertEquals(5, outboxEventRepository.findUnpublished(LocalDateTime.now(), PageRequest.of(0, 10)).stream()
+                .filter(e -> e.getEventType().equals("COMPLETED")).count());
+        assertEquals(0, completion.completeElapsed());
+    }
+
+    @Test
+    void usesEachDoctorsSlotLength() {
+        long[] ids = doctorAndPatient();
+        jdbc.update("UPDATE doctor SET slot_minutes = 15 WHERE id = ?", ids[0]);
+        LocalDateTime now = LocalDateTime.now();
+        long shortSlot = insertAppointment(ids[0], ids[1], now.minusMinutes(20), 0);
+        long otherDoctorId = doctor("other@example.com");
+        insertAppointment(otherDoctorId, ids[1], now.minusMinutes(20), 0);  // Standardslot 60 min, läuft noch
+        List<AppointmentsCompletedEvent> events = new ArrayList<>();
+
+        assertEquals(1, completion(events, 10).completeElapsed());
+
+        assertEquals(List.of(shortSlot), events.get(0).appointmentIds());
+    }
+
+    // Nicht in der Testtransaktion: die Sperre muss von einer zweiten, echten Verbindung kommen
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void skipsAppointmentsLockedByAConcurrentChange() throws Exception {
+        long[] ids = new TransactionTemplate(transactionManager).execute(status -> doctorAndPatient());
+        LocalDateTime now = LocalDateTime.now();
+        long first = insertAppointment(ids[0], ids[1], now.minusDays(1), 0);
+        long cancelled = insertAppointment(ids[0], ids[1], now.minusDays(1).plusMinutes(1), 0);
+        long third = insertAppointment(ids[0], ids[1], now.minusDays(1).plusMinutes(2), 0);
+        try (Connection concurrent = dataSource.getConnection()) {
+            // Absage von Hand, noch nicht committet, während der Abschluss läuft
+            concurrent.setAutoCommit(false);
+            try (PreparedStatement cancel = concurrent.prepareStatement(
+                    "UPDATE appointment SET status = 2 WHERE id = ?")) {
+                cancel.setLong(1, cancelled);
+                cancel.executeUpdate();
+            }
+            List<AppointmentsCompletedEvent> events = new ArrayList<>();
+
+            assertEquals(2, completion(events, 10).completeElapsed());
+            concurrent.commit();
+
+            assertEquals(List.of(first, third), events.get(0).appointmentIds());
+            assertEquals(List.of(first, third), outboxEventRepository.findUnpublished(LocalDateTime.now(), PageRequest.of(0, 10)).stream()
+                    .map(OutboxEvent::getAggregateId).toList());
+            assertEquals(2, jdbc.queryForObject("SELECT status FROM appointment WHERE id = ?", Integer.class,
+                    cancelled));
+        } finally {
+            jdbc.update("DELETE FROM outbox_event");
+            jdbc.update("DELETE FROM resource_version");
+            jdbc.update("DELETE FROM appointment");
+            jdbc.update("DELETE FROM doctor_available_times");
+            jdbc.update("DELETE FROM doctor");
+            jdbc.update("DELETE FROM patient");
+        }
+    }
+
+    private AppointmentCompletionService completion(List<AppointmentsCompletedEvent> events, int batchSize) {
+        return new AppointmentCompletionService(appointmentRepository, new ResourceVersions(resourceVersionRepository),
+                event -> events.add((AppointmentsCompletedEvent) event),
+                new OutboxService(outboxEventRepository, new ObjectMapper()), transactionManager, batchSize, 50);
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+// Vergleicht den Heap-Verbrauch pro Anfrage: Tagesliste eines Arztes über Entities (bisheriger Weg in
+// AppointmentService.getAppointments inkl. Nachladen und Flush) gegen die Konstruktor-Projektion in AppointmentDTO.
+class AppointmentProjectionAllocationTest extends JpaRepositoryTest {
+
+    private static final int ROWS = 200;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final LocalDate day = LocalDate.now().plusDays(7);
+    private long doctorId;
+
+    @BeforeEach
+    void setUp() {
+        doctorId = doctor("emily.adams@example.com");
+        Doctor doctor = entityManager.find(Doctor.class, doctorId);
+        doctor.setSlotMinutes(30);
+        for (int i = 0; i < ROWS; i++) {
+            Patient patient = new Patient();
+            patient.setName("Patient " + i);
+            patient.setEmail("patient" + i + "@example.com");
+            patient.setPassword("secret123");
+            patient.setPhone("5550000000");
+            patient.setAddress(i + " Main Street, Springfield");
+            entityManager.persist(patient);
+            entityManager.persist(new Appointment(0, doctor, patient, day.atTime(8, 0).plusMinutes(2L * i), 0));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionMatchesEntityMappingAndAllocatesLess() {
+        List<AppointmentDTO> viaEntities = viaEntities();
+        List<AppointmentDTO> viaProjection = viaProjection();
+        assertEquals(ROWS, viaProjection.size());
+        assertEquals(viaEntities.get(0), viaProjection.get(0));
+        assertEquals(day.atTime(8, 30), viaProjection.get(0).endTime());
+
+        long entityBytes = allocatedPerCall(this::viaEntities);
+        long projectionBytes = allocatedPerCall(this::viaProjection);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private List<AppointmentDTO> viaEntities() {
+        List<AppointmentDTO> result = appointmentRepository.findByDoctor_IdAndAppointmentTimeBetween(doctorId,
+                day.atStartOfDay(), day.atTime(LocalTime.MAX)).stream().map(appointment -> {
+            Patient patient = patientRepository.findById(appointment.getPatientId()).orElseThrow();
+            Doctor doctor = doctorRepository.findById(appointment.getDoctorId()).orElseThrow();
+            return new AppointmentDTO(appointment.getId(), doctor.getId(), doctor.getName(), patient.getId(),
+                    patient.getName(), patient.getEmail(), patient.getPhone(), patient.getAddress(),
+                    appointment.getAppointmentTime(), appointment.getStatus(), doctor.getSlotMinutes());
+        }).toList();
+        // Dirty Checking beim Commit einer Schreibtransaktion
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private List<AppointmentDTO> viaProjection() {
+        List<AppointmentDTO> result = appointmentRepository.findDtosByDoctorIdAndTimeBetween(doctorId,
+                day.atStartOfDay(), day.atTime(LocalTime.MAX));
+        entityManager.flush();
+        entityManager.clear();
+        return result;
+    }
+
+    private static long allocatedPerCall(Supplier<List<AppointmentDTO>> request) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            request.get();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / ROUNDS;
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.models.Doctor;
+
+// Arzt mit 50.000 Terminen per Bulk-DELETE, ohne die Termine als Entities zu laden
+class DoctorBulkDeleteTest extends JpaRepositoryTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Test
+    void bulkDeleteRemovesDoctorWithAllAppointments() {
+        long patientId = patient();
+        long doctorId = doctor("bulk@example.com", patientId, 50_000);
+        long otherId = doctor("other@example.com", patientId, 10);
+
+        List<Long> ids = List.of(doctorId);
+        List<Object[]> appointmentIds = appointmentRepository.findDoctorAndIdsByDoctorIds(ids);
+        int appointments = appointmentRepository.deleteByDoctorIds(ids);
+        doctorRepository.deleteAvailableTimesByDoctorIds(ids);
+        int doctors = doctorRepository.deleteByIds(ids);
+        entityManager.flush();
+
+        assertEquals(50_000, appointmentIds.size());
+        assertEquals(doctorId, appointmentIds.get(0)[0]);
+        assertEquals(50_000, appointments);
+        assertEquals(1, doctors);
+        assertEquals(List.of(otherId), doctorRepository.findExistingIds(List.of(doctorId, otherId)));
+        assertEquals(10, appointmentRepository.findIdsByDoctorIds(List.of(otherId)).size());
+        assertEquals(0, jdbc.queryForObject(
+                "SELECT COUNT(*) FROM doctor_available_times WHERE doctor_id = ?", Integer.class, doctorId));
+    }
+
+    private long doctor(String email, long patientId, int appointments) {
+        long doctorId = doctor(email);
+        entityManager.find(Doctor.class, doctorId)
+                .setAvailableTimes(new ArrayList<>(List.of("09:00-10:00", "10:00-11:00")));
+        entityManager.flush();
+
+        LocalDateTime first = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Object[]> rows = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            rows.add(new Object[] {doctorId, patientId, Timestamp.valueOf(first.plusMinutes(30L * i)), 0});
+        }
+        jdbc.batchUpdate("INSERT INTO appointment (doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, ?)",
+                rows);
+        entityManager.clear();
+        return doctorId;
+    }
+}
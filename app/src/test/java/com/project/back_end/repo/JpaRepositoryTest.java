@@ -0,0 +1,75 @@
+package com.project.back_end.repo;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+
+// Gemeinsame Grundlage der Repository-Tests: H2 mit allen Entities und JPA-Repositories (ein Kontext für alle
+// Unterklassen), dazu Testpatientin, Testarzt und Termine per SQL
+@DataJpaTest(showSql = false,
+        properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ContextConfiguration(classes = JpaRepositoryTest.JpaConfig.class)
+public abstract class JpaRepositoryTest {
+
+    @Autowired
+    protected TestEntityManager entityManager;
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    protected long patient() {
+        return patient("jane.doe@example.com");
+    }
+
+    protected long patient(String email) {
+        Patient patient = new Patient();
+        patient.setName("Jane Doe");
+        patient.setEmail(email);
+        patient.setPassword("secret123");
+        patient.setPhone("5550000000");
+        patient.setAddress("1 Main Street");
+        entityManager.persist(patient);
+        return patient.getId();
+    }
+
+    protected long doctor(String email) {
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr. Emily Adams");
+        doctor.setSpecialty("Cardiologist");
+        doctor.setEmail(email);
+        doctor.setPassword("secret123");
+        doctor.setPhone("5551012020");
+        entityManager.persist(doctor);
+        entityManager.flush();
+        return doctor.getId();
+    }
+
+    // [doctorId, patientId]
+    protected long[] doctorAndPatient() {
+        long patientId = patient();
+        return new long[] {doctor("emily.adams@example.com"), patientId};
+    }
+
+    // Liefert die Id des neuen Termins
+    protected long insertAppointment(long doctorId, long patientId, LocalDateTime time, int status) {
+        jdbc.update("INSERT INTO appointment (doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, ?)",
+                doctorId, patientId, time, status);
+        return jdbc.queryForObject("SELECT MAX(id) FROM appointment", Long.class);
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Appointment.class)
+    @EnableJpaRepositories(basePackageClasses = AppointmentRepository.class)
+    static class JpaConfig {
+    }
+}
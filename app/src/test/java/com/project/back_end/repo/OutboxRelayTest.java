@@ -0,0 +1,188 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.services.OutboxMessage;
+import com.project.back_end.services.OutboxRelay;
+import com.project.back_end.services.OutboxService;
+import com.project.back_end.services.OutboxSink;
+
+class OutboxRelayTest extends JpaRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void failedEventHoldsBackLaterEventsOfSameAppointmentOnly() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 2L, "BOOKED", Map.of("appointmentId", 2L));
+        outbox.record(OutboxService.APPOINTMENT, 1L, "CANCELED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.PRESCRIPTION, 2L, "PRESCRIPTION_SAVED", Map.of("appointmentId", 2L));
+        RecordingSink sink = new RecordingSink();
+        sink.failFor = 1L;
+        OutboxRelay relay = relay(List.of(sink), 0L);
+
+        assertEquals(2, relay.relay());
+        assertEquals(List.of("2:BOOKED", "2:PRESCRIPTION_SAVED"), sink.received);
+
+        sink.failFor = null;
+        assertEquals(2, relay.relay());
+        assertEquals(List.of("2:BOOKED", "2:PRESCRIPTION_SAVED", "1:BOOKED", "1:CANCELED"), sink.received);
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void doctorEventDoesNotHoldBackAppointmentWithSameIdButPrescriptionFollowsItsAppointment() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.DOCTOR, 1L, "UPDATED", Map.of("doctorId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 2L, "BOOKED", Map.of("appointmentId", 2L));
+        outbox.record(OutboxService.PRESCRIPTION, 2L, "PRESCRIPTION_SAVED", Map.of("appointmentId", 2L));
+        RecordingSink sink = new RecordingSink();
+        sink.failForType = OutboxService.DOCTOR;
+        sink.failForEvent = "BOOKED:2";
+        OutboxRelay relay = relay(List.of(sink), 0L);
+
+        assertEquals(1, relay.relay());
+        assertEquals(List.of("1:BOOKED"), sink.received);
+    }
+
+    @Test
+    void poisonEventBecomesDeadLetterAndReleasesItsAggregate() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 1L, "CANCELED", Map.of("appointmentId", 1L));
+        RecordingSink sink = new RecordingSink();
+        sink.failForEvent = "BOOKED:1";
+        OutboxRelay relay = relay(List.of(sink), 0L);
+
+        assertEquals(0, relay.relay());
+        assertEquals(0, relay.relay());
+        assertEquals(0, relay.relay());   // dritter Fehlversuch: Dead Letter
+        assertEquals(1, relay.relay());
+        assertEquals(List.of("1:CANCELED"), sink.received);
+        entityManager.clear();
+        OutboxEvent dead = outboxEventRepository.findAll().get(0);
+        assertEquals(3, dead.getAttempts());
+        assertNotNull(dead.getFailedAt());
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void failedEventWaitsForBackoffAndKeepsHoldingBackItsAggregate() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 1L, "CANCELED", Map.of("appointmentId", 1L));
+        outbox.record(OutboxService.APPOINTMENT, 2L, "BOOKED", Map.of("appointmentId", 2L));
+        RecordingSink sink = new RecordingSink();
+        sink.failFor = 1L;
+        OutboxRelay relay = relay(List.of(sink), 3_600_000L);
+
+        assertEquals(1, relay.relay());
+        sink.failFor = null;
+        outbox.record(OutboxService.APPOINTMENT, 1L, "UPDATED", Map.of("appointmentId", 1L));
+        assertEquals(0, relay.relay());   // Wartezeit läuft, auch spätere Einträge von Termin 1 warten
+        assertEquals(List.of("2:BOOKED"), sink.received);
+
+        entityManager.flush();
+        jdbc.update("UPDATE outbox_event SET next_attempt_at = ? WHERE next_attempt_at IS NOT NULL",
+                LocalDateTime.now().minusSeconds(1));
+        entityManager.clear();
+
+        assertEquals(3, relay.relay());
+        assertEquals(List.of("2:BOOKED", "1:BOOKED", "1:CANCELED", "1:UPDATED"), sink.received);
+    }
+
+    @Test
+    void retryGoesOnlyToTheSinkThatFailed() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        RecordingSink healthy = new RecordingSink();
+        RecordingSink flaky = new RecordingSink() {
+            @Override
+            public String name() {
+                return "flaky";
+            }
+        };
+        flaky.failFor = 1L;
+        OutboxRelay relay = relay(List.of(healthy, flaky), 0L);
+
+        assertEquals(0, relay.relay());
+        flaky.failFor = null;
+        assertEquals(1, relay.relay());
+
+        assertEquals(List.of("1:BOOKED"), healthy.received);
+        assertEquals(List.of("1:BOOKED"), flaky.received);
+        assertEquals(0, outboxDeliveryRepository.count());   // nach der Veröffentlichung aufgeräumt
+    }
+
+    @Test
+    void requeuedDeadLetterIsDeliveredAgain() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+        outbox.record(OutboxService.APPOINTMENT, 1L, "BOOKED", Map.of("appointmentId", 1L));
+        RecordingSink sink = new RecordingSink();
+        sink.failFor = 1L;
+        OutboxRelay relay = relay(List.of(sink), 0L);
+        for (int i = 0; i < 3; i++) {
+            relay.relay();
+        }
+        sink.failFor = null;
+        assertEquals(0, relay.relay());
+
+        assertEquals(1, outbox.requeueDeadLetters(List.of()));
+        entityManager.clear();
+
+        assertEquals(1, relay.relay());
+        assertEquals(List.of("1:BOOKED"), sink.received);
+    }
+
+    @Test
+    void recordOnceCreatesTheEventOnlyOnce() {
+        OutboxService outbox = new OutboxService(outboxEventRepository, new ObjectMapper());
+
+        assertTrue(outbox.recordOnce(OutboxService.PRESCRIPTION, 7L, "PRESCRIPTION_SAVED", Map.of("appointmentId", 7L)));
+        assertFalse(outbox.recordOnce(OutboxService.PRESCRIPTION, 7L, "PRESCRIPTION_SAVED", Map.of("appointmentId", 7L)));
+
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    private OutboxRelay relay(List<OutboxSink> sinks, long backoffMillis) {
+        return new OutboxRelay(outboxEventRepository, outboxDeliveryRepository, sinks, transactionManager, 10, 5, 3,
+                backoffMillis, 168);
+    }
+
+    private static class RecordingSink implements OutboxSink {
+        private final List<String> received = new ArrayList<>();
+        private Long failFor;
+        private String failForType;
+        private String failForEvent;
+
+        @Override
+        public void publish(OutboxMessage message) {
+            if (message.aggregateId().equals(failFor) || message.aggregateType().equals(failForType)
+                    || (message.eventType() + ":" + message.aggregateId()).equals(failForEvent)) {
+                throw new IllegalStateException("listener down");
+            }
+            received.add(message.aggregateId() + ":" + message.eventType());
+        }
+    }
+}
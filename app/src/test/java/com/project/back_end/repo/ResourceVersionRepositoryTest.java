@@ -0,0 +1,30 @@
+package com.project.back_end.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.project.back_end.services.ResourceVersions;
+
+class ResourceVersionRepositoryTest extends JpaRepositoryTest {
+
+    @Autowired
+    private ResourceVersionRepository resourceVersionRepository;
+
+    @Test
+    void bumpOnOneInstanceChangesTheEtagOnAnother() {
+        ResourceVersions first = new ResourceVersions(resourceVersionRepository);
+        ResourceVersions second = new ResourceVersions(resourceVersionRepository);
+        first.createCounters();
+        second.createCounters();
+        String before = second.etag(ResourceVersions.DOCTORS);
+
+        assertEquals(1, resourceVersionRepository.increment(ResourceVersions.DOCTORS));
+        entityManager.clear();
+
+        assertNotEquals(before, second.etag(ResourceVersions.DOCTORS));
+        assertEquals(first.etag(ResourceVersions.DOCTORS), second.etag(ResourceVersions.DOCTORS));
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class AppointmentIntervalIndexTest {
+
+    private final LocalDate day = LocalDate.of(2030, 1, 7);
+
+    @Test
+    void detectsAppointmentStartingBeforeTheQueriedInterval() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, day.atTime(9, 30)});
+        AppointmentIntervalIndex index = AppointmentIntervalIndex.build(rows, 60, -1L);
+
+        assertTrue(index.overlaps(day.atTime(10, 0), day.atTime(11, 0)));
+        assertFalse(index.overlaps(day.atTime(10, 30), day.atTime(11, 30)));
+        assertFalse(index.overlaps(day.atTime(8, 30), day.atTime(9, 30)));
+    }
+
+    @Test
+    void ignoresExcludedAppointment() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, day.atTime(9, 0)});
+        rows.add(new Object[] {2L, day.atTime(11, 0)});
+        AppointmentIntervalIndex index = AppointmentIntervalIndex.build(rows, 60, 1L);
+
+        assertEquals(1, index.size());
+        assertFalse(index.overlaps(day.atTime(9, 0), day.atTime(10, 0)));
+        assertTrue(index.overlaps(day.atTime(11, 0), day.atTime(12, 0)));
+    }
+
+    // Vergleicht den Index mit einer linearen Prüfung über zufällige, auch überlappende Termine
+    @Test
+    void agreesWithLinearScanOnRandomAppointments() {
+        Random random = new Random(20300107L);
+        for (int round = 0; round < 200; round++) {
+            int duration = 5 + random.nextInt(120);
+            List<Object[]> rows = new ArrayList<>();
+            int count = random.nextInt(40);
+            for (long id = 1; id <= count; id++) {
+                rows.add(new Object[] {id, day.atStartOfDay().plusMinutes(random.nextInt(24 * 60))});
+            }
+            long exclude = random.nextInt(count + 2);
+            AppointmentIntervalIndex index = AppointmentIntervalIndex.build(rows, duration, exclude);
+
+            for (int query = 0; query < 50; query++) {
+                LocalDateTime start = day.atStartOfDay().plusMinutes(random.nextInt(24 * 60));
+                LocalDateTime end = start.plusMinutes(1 + random.nextInt(180));
+                assertEquals(linearOverlaps(rows, duration, exclude, start, end), index.overlaps(start, end),
+                        "round " + round + ", query " + start + " - " + end);
+            }
+        }
+    }
+
+    private static boolean linearOverlaps(List<Object[]> rows, int duration, long exclude,
+            LocalDateTime start, LocalDateTime end) {
+        for (Object[] row : rows) {
+            LocalDateTime appointmentStart = (LocalDateTime) row[1];
+            if ((Long) row[0] != exclude && appointmentStart.isBefore(end)
+                    && appointmentStart.plusMinutes(duration).isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CredentialServiceTest {
+
+    private static final int STRENGTH = 5;
+
+    private PasswordHashingService hashing;
+    private CredentialService credentials;
+    private final AtomicReference<String> rehashed = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        hashing = new PasswordHashingService(new BCryptPasswordEncoder(STRENGTH), new SimpleMeterRegistry(), 1, 4, 5000);
+        credentials = new CredentialService(hashing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashing.shutdown();
+    }
+
+    @Test
+    void rehashesLegacyPlainTextPasswordOnLogin() {
+        assertTrue(credentials.verify("secret1", "secret1", rehashed::set));
+
+        assertTrue(CredentialService.isHashed(rehashed.get()));
+        assertTrue(credentials.verify("secret1", rehashed.get(), hash -> { }));
+    }
+
+    @Test
+    void rehashesWeakerCostFactor() {
+        String weak = new BCryptPasswordEncoder(4).encode("secret1");
+
+        assertTrue(credentials.verify("secret1", weak, rehashed::set));
+
+        assertEquals("$2a$0" + STRENGTH, rehashed.get().substring(0, 6));
+    }
+
+    @Test
+    void keepsHashWithCurrentCostFactor() {
+        String current = credentials.hash("secret1");
+
+        assertTrue(credentials.verify("secret1", current, rehashed::set));
+
+        assertNull(rehashed.get());
+    }
+
+    @Test
+    void rejectsWrongPasswordWithoutRehash() {
+        assertFalse(credentials.verify("wrong", "secret1", rehashed::set));
+        assertFalse(credentials.verify("wrong", credentials.hash("secret1"), rehashed::set));
+
+        assertNull(rehashed.get());
+    }
+}
@@ -0,0 +1,147 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.TestAppointments;
+import com.project.back_end.DTO.AppointmentWithPrescription;
+import com.project.back_end.models.Prescription;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DoctorDashboardServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+
+    private AppointmentService appointmentService;
+    private MongoTemplate mongoTemplate;
+    private PlatformTransactionManager transactionManager;
+    private DoctorDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentService = mock(AppointmentService.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        dashboardService = new DoctorDashboardService(appointmentService, mongoTemplate, transactionManager,
+                new SimpleMeterRegistry(), 4, 10, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void loadsAllPrescriptionsWithOneQuery() throws Exception {
+        when(appointmentService.getAppointments(3L, "", DATE)).thenReturn(List.of(appointment(1L), appointment(2L)));
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class)))
+                .thenReturn(List.of(new Prescription("Jane Doe", "Ibuprofen", "400mg", null, 2L)));
+
+        List<AppointmentWithPrescription> rows = dashboardService.getAppointments(3L, "", DATE);
+
+        assertEquals(AppointmentWithPrescription.NONE, rows.get(0).prescriptionStatus());
+        assertEquals(AppointmentWithPrescription.PRESENT, rows.get(1).prescriptionStatus());
+        assertEquals("Ibuprofen", rows.get(1).prescription().getMedication());
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Prescription.class));
+    }
+
+    @Test
+    void remainingDeadlineBoundsBothQueries() throws Exception {
+        when(appointmentService.getAppointments(3L, "", DATE)).thenReturn(List.of(appointment(1L)));
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class))).thenReturn(List.of());
+
+        dashboardService.getAppointments(3L, "", DATE);
+
+        ArgumentCaptor<TransactionDefinition> transaction = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(transaction.capture());
+        assertTrue(transaction.getValue().isReadOnly());
+        assertEquals(1, transaction.getValue().getTimeout());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Prescription.class));
+        long maxTime = query.getValue().getMeta().getMaxTimeMsec();
+        assertTrue(maxTime > 0 && maxTime <= 200, "maxTime " + maxTime);
+    }
+
+    @Test
+    void fullPoolIsRejectedInsteadOfQueued() throws Exception {
+        dashboardService.shutdown();
+        dashboardService = new DoctorDashboardService(appointmentService, mongoTemplate, transactionManager,
+                new SimpleMeterRegistry(), 1, 1, 200);
+        CountDownLatch release = new CountDownLatch(1);
+        // blockierender Treiberaufruf, der auf das Interrupt von cancel(true) nicht reagiert
+        when(appointmentService.getAppointments(3L, "", DATE)).thenAnswer(invocation -> {
+            long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (release.getCount() > 0 && System.nanoTime() < until) {
+                try {
+                    release.await(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignored) {
+                    // weiter warten
+                }
+            }
+            return List.of();
+        });
+        // belegt den einen Thread und den einen Warteplatz
+        assertThrows(TimeoutException.class, () -> dashboardService.getAppointments(3L, "", DATE));
+        assertThrows(TimeoutException.class, () -> dashboardService.getAppointments(3L, "", DATE));
+
+        assertThrows(RejectedExecutionException.class, () -> dashboardService.getAppointments(3L, "", DATE));
+        release.countDown();
+    }
+
+    @Test
+    void slowPrescriptionStoreDegradesInsteadOfBlocking() throws Exception {
+        when(appointmentService.getAppointments(3L, "", DATE)).thenReturn(List.of(appointment(1L)));
+        when(mongoTemplate.find(any(Query.class), eq(Prescription.class))).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        List<AppointmentWithPrescription> rows = dashboardService.getAppointments(3L, "", DATE);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(AppointmentWithPrescription.UNKNOWN, rows.get(0).prescriptionStatus());
+        assertTrue(millis < 1000, "waited " + millis + " ms");
+    }
+
+    @Test
+    void slowAppointmentQueryTimesOut() {
+        when(appointmentService.getAppointments(3L, "", DATE)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+
+        assertThrows(TimeoutException.class, () -> dashboardService.getAppointments(3L, "", DATE));
+    }
+
+    private static AppointmentDTO appointment(long id) {
+        return TestAppointments.appointment(id, LocalDateTime.of(DATE, LocalTime.of(9, 0)).plusHours(id), 0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.JpaRepositoryTest;
+
+// DoctorService.deleteDoctors gegen H2: Termine und Archivzeilen weg, Outbox-Ereignis mit allen Termin-IDs,
+// Rezepte erst nach dem Commit
+class DoctorDeletionTest extends JpaRepositoryTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    private final PrescriptionService prescriptionService = mock(PrescriptionService.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    // Nach einem echten Commit bleibt nur die Testpatientin übrig
+    @AfterEach
+    void removeCommittedPatient() {
+        if (!TestTransaction.isActive()) {
+            jdbc.update("DELETE FROM patient");
+        }
+    }
+
+    @Test
+    void deletesAppointmentsAndArchiveAndPublishesAllAppointmentIds() {
+        long[] ids = doctorAndPatient();
+        long otherDoctorId = doctor("other@example.com");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        long upcoming = insertAppointment(ids[0], ids[1], now.plusDays(1), 0);
+        long archived = insertAppointment(ids[0], ids[1], now.minusYears(3), 1);
+        archivedAppointmentRepository.copyFromAppointments(List.of(archived), now);
+        jdbc.update("DELETE FROM appointment WHERE id = ?", archived);
+        long otherAppointment = insertAppointment(otherDoctorId, ids[1], now.plusDays(1), 0);
+
+        Map<String, Integer> result = service().deleteDoctors(List.of(ids[0], 999_999L));
+
+        assertEquals(Map.of("doctors", 1, "appointments", 2), result);
+        assertEquals(List.of(otherAppointment), appointmentRepository.findIdsByDoctorIds(List.of(ids[0], otherDoctorId)));
+        assertEquals(List.of(), archivedAppointmentRepository.findIdsByDoctorIds(List.of(ids[0])));
+        assertEquals(List.of(otherDoctorId), doctorRepository.findExistingIds(List.of(ids[0], otherDoctorId)));
+        ArgumentCaptor<Map<String, ?>> payload = payloadCaptor();
+        verify(outboxService).record(eq(OutboxService.DOCTOR), eq(ids[0]), eq("DELETED"), payload.capture());
+        assertEquals(ids[0], payload.getValue().get("doctorId"));
+        assertEquals(List.of(upcoming, archived), sorted(payload.getValue().get("appointmentIds")));
+    }
+
+    @Test
+    void removesPrescriptionsOnlyAfterCommit() {
+        long[] ids = doctorAndPatient();
+        long first = insertAppointment(ids[0], ids[1], LocalDateTime.now().plusDays(1), 0);
+        long second = insertAppointment(ids[0], ids[1], LocalDateTime.now().plusDays(2), 0);
+
+        service().deleteDoctors(List.of(ids[0]));
+        verify(prescriptionService, never()).deleteByAppointmentIds(any());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> appointmentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(prescriptionService).deleteByAppointmentIds(appointmentIds.capture());
+        assertEquals(List.of(first, second), sorted(appointmentIds.getValue()));
+    }
+
+    @Test
+    void rejectsMoreThanTheBulkLimit() {
+        List<Long> doctorIds = LongStream.rangeClosed(1, DoctorService.MAX_BULK_DELETE + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> service().deleteDoctors(doctorIds));
+
+        verify(outboxService, never()).record(any(), any(), any(), anyMap());
+        verifyNoInteractions(prescriptionService);
+    }
+
+    private DoctorService service() {
+        return new DoctorService(doctorRepository, appointmentRepository, mock(TokenService.class),
+                mock(CredentialService.class), mock(AppointmentService.class), mock(DoctorScheduleCache.class),
+                mock(RefreshTokenService.class), mock(ResourceVersions.class), prescriptionService,
+                archivedAppointmentRepository, outboxService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<String, ?>> payloadCaptor() {
+        return ArgumentCaptor.forClass(Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Long> sorted(Object ids) {
+        List<Long> list = new ArrayList<>((Collection<Long>) ids);
+        list.sort(null);
+        return list;
+    }
+}
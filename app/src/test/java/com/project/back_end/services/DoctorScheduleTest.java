@@ -0,0 +1,86 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+
+class DoctorScheduleTest {
+
+    private final LocalDate day = LocalDate.of(2030, 5, 6);
+
+    @Test
+    void mergesAdjacentEntriesAndKeepsBreaks() {
+        DoctorSchedule schedule = DoctorSchedule.compile(
+                List.of("10:00-11:00", "09:00-10:00", "11:00-12:00", "14:00-15:00"), null);
+
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        assertEquals(List.of("09:00", "10:00", "11:00", "14:00"), calendar.freeSlots(0));
+        assertFalse(schedule.covers(day.atTime(12, 0), day.atTime(13, 0)));
+    }
+
+    @Test
+    void splitsWindowsIntoThirtyMinuteSlots() {
+        DoctorSchedule schedule = DoctorSchedule.compile(List.of("09:00-11:00"), 30);
+
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        calendar.markBooked(day.atTime(9, 30), schedule.getSlotMinutes());
+
+        assertEquals(List.of("09:00", "10:00", "10:30"), calendar.freeSlots(0));
+        assertTrue(schedule.covers(day.atTime(10, 30), day.atTime(11, 0)));
+        assertFalse(schedule.covers(day.atTime(10, 45), day.atTime(11, 15)));
+        assertFalse(schedule.covers(day.atTime(10, 30), day.atTime(11, 30)));
+    }
+
+    @Test
+    void unalignedBookingBlocksEveryOverlappedSlot() {
+        DoctorSchedule schedule = DoctorSchedule.compile(List.of("09:00-10:00"), 15);
+
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        calendar.markBooked(day.atTime(9, 10), 15);
+
+        assertEquals(List.of("09:30", "09:45"), calendar.freeSlots(0));
+    }
+
+    @Test
+    void fallsBackToNineToFiveHourlyWithoutUsableTimes() {
+        DoctorSchedule schedule = DoctorSchedule.compile(List.of("not a time"), null);
+
+        assertEquals(8, schedule.getGrid().size());
+        assertEquals(60, schedule.getSlotMinutes());
+        assertTrue(schedule.hasSlotStartingBetween(9 * 60, 12 * 60));
+    }
+
+    @Test
+    void evictInsideTransactionWaitsForCommit() {
+        DoctorScheduleCache cache = new DoctorScheduleCache(mock(DoctorRepository.class));
+        Doctor doctor = new Doctor();
+        doctor.setId(3L);
+        doctor.setAvailableTimes(List.of("09:00-10:00"));
+        DoctorSchedule cached = cache.get(doctor);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(3L);
+            // vor dem Commit darf ein Leser noch das alte Raster bekommen, aber kein neues einlagern
+            assertSame(cached, cache.get(doctor));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNotSame(cached, cache.get(doctor));
+    }
+}
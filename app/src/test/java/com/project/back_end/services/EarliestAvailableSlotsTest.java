@@ -0,0 +1,106 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.DTO.AvailableSlotDTO;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.ResourceVersionRepository;
+
+class EarliestAvailableSlotsTest {
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    private DoctorRepository doctorRepository;
+    private AppointmentRepository appointmentRepository;
+    private DoctorService doctorService;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        doctorService = new DoctorService(doctorRepository, appointmentRepository, mock(TokenService.class),
+                mock(CredentialService.class), mock(AppointmentService.class), new DoctorScheduleCache(doctorRepository),
+                mock(RefreshTokenService.class), new ResourceVersions(mock(ResourceVersionRepository.class)), mock(PrescriptionService.class),
+                mock(ArchivedAppointmentRepository.class), mock(OutboxService.class));
+    }
+
+    @Test
+    void mergesFreeSlotsOfAllDoctorsInTimeOrder() {
+        when(doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase("", "cardio"))
+                .thenReturn(List.of(doctor(1L), doctor(2L)));
+        List<Object[]> booked = new ArrayList<>();
+        booked.add(new Object[] {1L, tomorrow.atTime(9, 0)});
+        booked.add(new Object[] {1L, tomorrow.atTime(10, 0)});
+        booked.add(new Object[] {2L, tomorrow.atTime(9, 0)});
+        when(appointmentRepository.findAppointmentTimesByDoctorIds(anyCollection(), any(), any())).thenReturn(booked);
+
+        List<AvailableSlotDTO> slots = doctorService.findEarliestAvailableSlots(null, "cardio", tomorrow, 2, 3);
+
+        assertEquals(3, slots.size());
+        assertSlot(slots.get(0), 2L, tomorrow.atTime(10, 0));
+        assertSlot(slots.get(1), 1L, tomorrow.atTime(11, 0));
+        assertSlot(slots.get(2), 2L, tomorrow.atTime(11, 0));
+    }
+
+    @Test
+    void continuesOnFollowingDaysWhenFullyBooked() {
+        when(doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase("", ""))
+                .thenReturn(List.of(doctor(1L)));
+        List<Object[]> booked = new ArrayList<>();
+        for (int hour = 9; hour < 17; hour++) {
+            booked.add(new Object[] {1L, tomorrow.atTime(hour, 0)});
+        }
+        when(appointmentRepository.findAppointmentTimesByDoctorIds(anyCollection(), any(), any())).thenReturn(booked);
+
+        List<AvailableSlotDTO> slots = doctorService.findEarliestAvailableSlots(null, null, tomorrow, 2, 1);
+
+        assertSlot(slots.get(0), 1L, tomorrow.plusDays(1).atTime(9, 0));
+    }
+
+    @Test
+    void loadsOccupancyInBatchesOfThousandDoctors() {
+        List<Doctor> doctors = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            doctors.add(doctor(id));
+        }
+        when(doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyContainingIgnoreCase("", ""))
+                .thenReturn(doctors);
+        when(appointmentRepository.findAppointmentTimesByDoctorIds(anyCollection(), any(), any())).thenReturn(List.of());
+
+        List<AvailableSlotDTO> slots = doctorService.findEarliestAvailableSlots(null, null, tomorrow, 30, 5);
+
+        assertEquals(5, slots.size());
+        assertSlot(slots.get(4), 5L, tomorrow.atTime(9, 0));
+        verify(appointmentRepository, times(3)).findAppointmentTimesByDoctorIds(anyCollection(), any(), any());
+    }
+
+    private static Doctor doctor(long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setName("Dr. " + id);
+        doctor.setSpecialty("Cardiologist");
+        return doctor;
+    }
+
+    private static void assertSlot(AvailableSlotDTO slot, long doctorId, LocalDateTime time) {
+        assertEquals(doctorId, slot.getDoctorId());
+        assertEquals(time, slot.getSlotTime());
+    }
+}
@@ -0,0 +1,171 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.models.PendingNotification;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.JpaRepositoryTest;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.PendingNotificationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NotificationServiceTest extends JpaRepositoryTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Autowired
+    private PendingNotificationRepository pendingNotificationRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void batchesNotificationsPerRecipient() throws Exception {
+        long first = patient("a@example.com");
+        long second = patient("b@example.com");
+        List<String> sent = new ArrayList<>();
+        NotificationService notifications = service((to, subject, body) -> sent.add(to + "|" + subject), 0L);
+
+        notifications.publish(message(1L, "BOOKED", first));
+        notifications.publish(message(2L, "UPDATED", first));
+        notifications.publish(message(3L, "BOOKED", second));
+        notifications.publish(message(4L, "COMPLETED", second));
+        notifications.drain();
+
+        assertEquals(List.of("a@example.com|2 updates on your appointments", "b@example.com|Your appointment"), sent);
+        notifications.drain();
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void redeliveredOutboxMessageIsNotifiedOnce() throws Exception {
+        long patientId = patient("a@example.com");
+        List<String> sent = new ArrayList<>();
+        NotificationService notifications = service((to, subject, body) -> sent.add(body), 0L);
+
+        notifications.publish(message(1L, "BOOKED", patientId));
+        notifications.drain();
+        notifications.publish(message(1L, "BOOKED", patientId));   // Relay-Quittung ging verloren
+        notifications.drain();
+
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void pendingNotificationsSurviveRestartAndAreRetriedUntilGivenUp() throws Exception {
+        long patientId = patient("a@example.com");
+        AtomicInteger calls = new AtomicInteger();
+        NotificationTransport down = (to, subject, body) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("smtp down");
+        };
+        service(down, 0L).publish(message(1L, "BOOKED", patientId));
+
+        // neue Instanz nach einem Neustart: die vorgemerkte Benachrichtigung ist noch da
+        NotificationService restarted = service(down, 0L);
+        for (int i = 0; i < 5; i++) {
+            restarted.drain();
+        }
+
+        assertEquals(3, calls.get());
+        PendingNotification notification = pendingNotificationRepository.findAll().get(0);
+        assertEquals(3, notification.getAttempts());
+        assertNotNull(notification.getFailedAt());
+    }
+
+    @Test
+    void retriesWithBackoffUntilTransportSucceeds() throws Exception {
+        long patientId = patient("a@example.com");
+        AtomicInteger calls = new AtomicInteger();
+        NotificationService notifications = service((to, subject, body) -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new IllegalStateException("smtp down");
+            }
+        }, 3_600_000L);
+
+        notifications.publish(message(1L, "BOOKED", patientId));
+        notifications.drain();
+        notifications.drain();   // Wartezeit noch nicht vorbei
+        assertEquals(1, calls.get());
+
+        entityManager.flush();
+        jdbc.update("UPDATE pending_notification SET next_attempt_at = ?", LocalDateTime.now().minusSeconds(1));
+        entityManager.clear();
+        notifications.drain();
+
+        assertEquals(2, calls.get());
+        assertNotNull(pendingNotificationRepository.findAll().get(0).getSentAt());
+    }
+
+    @Test
+    void fullQueueRejectsNewNotificationsSoTheRelayRetriesLater() throws Exception {
+        long patientId = patient("a@example.com");
+        NotificationService notifications = service((to, subject, body) -> { }, 0L, 1);
+
+        notifications.publish(message(1L, "BOOKED", patientId));
+
+        assertThrows(IllegalStateException.class, () -> notifications.publish(message(2L, "UPDATED", patientId)));
+        assertEquals(1, pendingNotificationRepository.count());
+    }
+
+    // Nicht in der Testtransaktion: geprüft wird, dass beim Versand keine Transaktion (und keine Sperre) offen ist
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void sendsWithoutOpenTransaction() throws Exception {
+        jdbc.update("INSERT INTO patient (name, email, password, phone, address)"
+                + " VALUES ('Jane Doe', 'tx@example.com', 'secret123', '5550000000', '1 Main Street')");
+        long patientId = jdbc.queryForObject("SELECT id FROM patient WHERE email = 'tx@example.com'", Long.class);
+        try {
+            List<Boolean> inTransaction = new ArrayList<>();
+            NotificationService notifications = service((to, subject, body) ->
+                    inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive()), 0L);
+
+            notifications.publish(message(1L, "BOOKED", patientId));
+            notifications.drain();
+
+            assertEquals(List.of(false), inTransaction);
+            assertNotNull(pendingNotificationRepository.findAll().get(0).getSentAt());
+        } finally {
+            jdbc.update("DELETE FROM pending_notification");
+            jdbc.update("DELETE FROM patient WHERE id = ?", patientId);
+        }
+    }
+
+    private NotificationService service(NotificationTransport transport, long backoffMillis) {
+        return service(transport, backoffMillis, 10_000);
+    }
+
+    private NotificationService service(NotificationTransport transport, long backoffMillis, int queueCapacity) {
+        return new NotificationService(transport, pendingNotificationRepository, patientRepository,
+                mock(AppointmentRepository.class), objectMapper, new SimpleMeterRegistry(), transactionManager,
+                100, 3, backoffMillis, 168, queueCapacity, 300_000);
+    }
+
+    private OutboxMessage message(long id, String type, long patientId) throws Exception {
+        String payload = objectMapper.writeValueAsString(Map.of("appointmentId", 7L, "patientId", patientId,
+                "appointmentTime", LocalDateTime.of(2030, 1, 2, 9, 0)));
+        return new OutboxMessage(id, OutboxService.APPOINTMENT, 7L, type, payload, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class OccupancyCalendarTest {
+
+    private final LocalDate day = LocalDate.of(2030, 5, 6);
+    private final DoctorSchedule schedule = DoctorSchedule.compile(List.of("09:00-12:00"), 60);
+
+    @Test
+    void freeSlotMapCoversEveryDayInOrder() {
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 3, schedule.getGrid());
+        calendar.markBooked(day.atTime(9, 0), 60);
+        calendar.markBooked(day.plusDays(2).atTime(11, 0), 60);
+
+        Map<LocalDate, List<String>> slots = calendar.toFreeSlotMap();
+
+        assertEquals(List.of(day, day.plusDays(1), day.plusDays(2)), List.copyOf(slots.keySet()));
+        assertEquals(List.of("10:00", "11:00"), slots.get(day));
+        assertEquals(List.of("09:00", "10:00", "11:00"), slots.get(day.plusDays(1)));
+        assertEquals(List.of("09:00", "10:00"), slots.get(day.plusDays(2)));
+    }
+
+    @Test
+    void longerOrOverlappingBookingsBlockAdjacentSlots() {
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        // 90 Minuten ab 09:00 reichen in den 10-Uhr-Slot, 10:45-11:15 überschneidet 10:00 und 11:00
+        calendar.markBooked(day.atTime(9, 0), 90);
+        assertEquals(List.of("11:00"), calendar.freeSlots(0));
+
+        calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        calendar.markBooked(day.atTime(10, 45), 30);
+        assertEquals(List.of("09:00"), calendar.freeSlots(0));
+    }
+
+    @Test
+    void bookingEndingAtSlotStartLeavesItFree() {
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 1, schedule.getGrid());
+        calendar.markBooked(day.atTime(8, 0), 60);
+        calendar.markBooked(day.atTime(11, 30), 120);
+
+        assertTrue(calendar.isFree(0, 0));
+        assertFalse(calendar.isFree(0, 2));
+        assertEquals(List.of("09:00", "10:00"), calendar.freeSlots(0));
+    }
+
+    @Test
+    void bookingsOutsideTheRangeAreIgnored() {
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 2, schedule.getGrid());
+        calendar.markBooked(day.minusDays(1).atTime(9, 0), 60);
+        calendar.markBooked(day.plusDays(2).atTime(9, 0), 60);
+
+        assertEquals(List.of("09:00", "10:00", "11:00"), calendar.freeSlots(0));
+        assertEquals(List.of("09:00", "10:00", "11:00"), calendar.freeSlots(1));
+    }
+
+    @Test
+    void nextFreeCrossesDaysAndStopsAtRangeEnd() {
+        OccupancyCalendar calendar = new OccupancyCalendar(day, 2, schedule.getGrid());
+        calendar.markBooked(day.atTime(9, 0), 180);
+        calendar.markBooked(day.plusDays(1).atTime(10, 0), 120);
+
+        int bit = calendar.nextFree(0);
+        assertEquals(day.plusDays(1).atTime(9, 0), calendar.timeOf(bit));
+        assertEquals(-1, calendar.nextFree(bit + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+
+// Zählt die Repository-Aufrufe pro Filter-Anfrage: Tokens mit "patientId"-Claim brauchen nur noch die Termin-Abfrage
+class PatientFilterRoundTripTest {
+
+    private static final String SECRET = "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M";
+
+    private PatientRepository patientRepository;
+    private AppointmentRepository appointmentRepository;
+    private TokenService tokenService;
+    private MvcService service;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        tokenService = new TokenService(mock(AdminRepository.class), mock(DoctorRepository.class),
+                patientRepository, mock(AccountRevocationList.class), SECRET, 900000L);
+        PatientService patientService = new PatientService(patientRepository, appointmentRepository, tokenService,
+                mock(CredentialService.class), mock(ArchivedAppointmentRepository.class));
+        service = new MvcService(tokenService, mock(AdminRepository.class), mock(DoctorRepository.class),
+                patientRepository, mock(DoctorService.class), patientService, appointmentRepository,
+                mock(DoctorScheduleCache.class), mock(CredentialService.class),
+                mock(RefreshTokenService.class));
+
+        Patient patient = new Patient();
+        patient.setId(42L);
+        patient.setEmail("jane.doe@example.com");
+        when(patientRepository.findByEmail("jane.doe@example.com")).thenReturn(Optional.of(patient));
+        when(appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(anyLong(), anyInt()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void tokenWithPatientIdSkipsPatientLookup() {
+        String token = tokenService.generateToken("jane.doe@example.com",
+                Map.of("role", "PATIENT", "patientId", "42"));
+
+        service.filterPatient(token, "future", null);
+
+        verify(patientRepository, never()).findByEmail(anyString());
+        verify(appointmentRepository).findByPatient_IdAndStatusOrderByAppointmentTimeAsc(42L, 0);
+        assertEquals(1, roundTrips());
+    }
+
+    @Test
+    void legacyTokenFallsBackToEmailLookup() {
+        String token = tokenService.generateToken("jane.doe@example.com");
+
+        service.filterPatient(token, "future", null);
+
+        verify(patientRepository).findByEmail("jane.doe@example.com");
+        verify(appointmentRepository).findByPatient_IdAndStatusOrderByAppointmentTimeAsc(42L, 0);
+        assertEquals(2, roundTrips());
+    }
+
+    private int roundTrips() {
+        return mockingDetails(patientRepository).getInvocations().size()
+                + mockingDetails(appointmentRepository).getInvocations().size();
+    }
+}
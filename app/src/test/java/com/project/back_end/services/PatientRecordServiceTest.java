@@ -0,0 +1,191 @@
+package com.project.back_end.services;
+
+import static com.project.back_end.DTO.TestAppointments.PATIENT_ID;
+import static com.project.back_end.DTO.TestAppointments.appointment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.PatientRecordEntry;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+import com.project.back_end.repo.PatientRecordRepository;
+import com.project.back_end.repo.PrescriptionRepository;
+
+class PatientRecordServiceTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private PatientRecordRepository patientRecordRepository;
+    private MongoTemplate mongoTemplate;
+    private AppointmentRepository appointmentRepository;
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    private PrescriptionRepository prescriptionRepository;
+    private PatientRecordService patientRecordService;
+
+    @BeforeEach
+    void setUp() {
+        patientRecordRepository = mock(PatientRecordRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        archivedAppointmentRepository = mock(ArchivedAppointmentRepository.class);
+        prescriptionRepository = mock(PrescriptionRepository.class);
+        patientRecordService = new PatientRecordService(patientRecordRepository, mongoTemplate, appointmentRepository,
+                archivedAppointmentRepository, prescriptionRepository, new ObjectMapper());
+    }
+
+    @Test
+    void bookedAppointmentIsUpsertedWithoutTouchingPrescription() throws Exception {
+        when(appointmentRepository.findDtoById(7L)).thenReturn(Optional.of(
+                appointment(7L, TIME, 0)));
+
+        patientRecordService.publish(message(OutboxService.APPOINTMENT, 7L, "BOOKED", "{}"));
+
+        Document set = upserted(7L);
+        assertEquals(PATIENT_ID, set.get("patientId"));
+        assertEquals("Dr. Adams", set.get("doctorName"));
+        assertEquals(TIME, set.get("appointmentTime"));
+        assertNull(set.get("medication"));
+    }
+
+    @Test
+    void savedPrescriptionIsMergedIntoAppointmentDocument() throws Exception {
+        Prescription prescription = new Prescription("Jane Doe", "Ibuprofen", "400mg", "After meals", 7L);
+        when(prescriptionRepository.findById("p1")).thenReturn(Optional.of(prescription));
+
+        patientRecordService.publish(message(OutboxService.PRESCRIPTION, 7L, "PRESCRIPTION_SAVED",
+                "{\"appointmentId\":7,\"prescriptionId\":\"p1\"}"));
+
+        Document set = upserted(7L);
+        assertEquals("Ibuprofen", set.get("medication"));
+        assertNull(set.get("patientId"));
+    }
+
+    @Test
+    void canceledAppointmentAndDeletedDoctorRemoveDocuments() throws Exception {
+        patientRecordService.publish(message(OutboxService.APPOINTMENT, 7L, "CANCELED", "{}"));
+        patientRecordService.publish(message(OutboxService.DOCTOR, 3L, "DELETED", "{\"doctorId\":3}"));
+
+        verify(patientRecordRepository).deleteById(7L);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(PatientRecordEntry.class));
+        assertEquals(3L, query.getValue().getQueryObject().get("doctorId"));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(PatientRecordEntry.class));
+    }
+
+    @Test
+    void renamedDoctorIsProjectedIntoAllItsAppointments() throws Exception {
+        patientRecordService.publish(message(OutboxService.DOCTOR, 3L, "UPDATED",
+                "{\"doctorId\":3,\"name\":\"Dr. Emily Adams-Reed\"}"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(PatientRecordEntry.class));
+        assertEquals(3L, query.getValue().getQueryObject().get("doctorId"));
+        assertEquals("Dr. Emily Adams-Reed",
+                update.getValue().getUpdateObject().get("$set", Document.class).get("doctorName"));
+    }
+
+    @Test
+    void rebuildAllPagesThroughArchivedAndCurrentAppointments() {
+        List<AppointmentDTO> full = new ArrayList<>();
+        for (long id = 1; id <= PatientRecordService.BACKFILL_BATCH_SIZE; id++) {
+            full.add(appointment(id, TIME, 1));
+        }
+        AppointmentDTO current = appointment(5000L, TIME, 0);
+        when(archivedAppointmentRepository.findDtosAfterId(eq(0L), any())).thenReturn(full);
+        when(archivedAppointmentRepository.findDtosAfterId(eq((long) PatientRecordService.BACKFILL_BATCH_SIZE), any()))
+                .thenReturn(List.of());
+        when(appointmentRepository.findDtosAfterId(eq(0L), any())).thenReturn(List.of(current));
+        when(archivedAppointmentRepository.findDtosByIds(any())).thenReturn(full);
+        when(appointmentRepository.findDtosByIds(any())).thenReturn(List.of(current));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PatientRecordEntry.class)).thenReturn(bulk);
+
+        assertEquals(PatientRecordService.BACKFILL_BATCH_SIZE + 1, patientRecordService.rebuildAll());
+
+        verify(bulk, times(2)).execute();
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(PatientRecordEntry.class));
+    }
+
+    @Test
+    void rebuildRemovesAppointmentCanceledWhileItWasWritingAndRewritesMovedOnes() {
+        AppointmentDTO canceled = appointment(7L, TIME, 0);
+        AppointmentDTO moved = appointment(8L, TIME, 0);
+        AppointmentDTO movedNow = appointment(8L, TIME.plusDays(1), 0);
+        when(appointmentRepository.findDtosByPatientId(PATIENT_ID)).thenReturn(List.of(canceled, moved));
+        // Gegenprobe nach dem Schreiben: 7 inzwischen abgesagt, 8 verschoben
+        when(appointmentRepository.findDtosByIds(List.of(7L, 8L))).thenReturn(List.of(movedNow));
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PatientRecordEntry.class)).thenReturn(bulk);
+
+        assertEquals(2, patientRecordService.rebuild(PATIENT_ID));
+
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).remove(removed.capture(), eq(PatientRecordEntry.class));
+        assertEquals(PATIENT_ID, removed.getAllValues().get(0).getQueryObject().get("patientId"));
+        assertEquals(new Document("$in", List.of(7L)), removed.getAllValues().get(1).getQueryObject().get("_id"));
+        ArgumentCaptor<Update> upserts = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(3)).upsert(any(Query.class), upserts.capture());
+        assertEquals(TIME.plusDays(1),
+                upserts.getAllValues().get(2).getUpdateObject().get("$set", Document.class).get("appointmentTime"));
+    }
+
+    @Test
+    void onlyOneRebuildOfAllRecordsRunsAtATime() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(archivedAppointmentRepository.findDtosAfterId(eq(0L), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        assertTrue(patientRecordService.startRebuildAll());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(patientRecordService.startRebuildAll());
+
+        release.countDown();
+        verify(appointmentRepository, timeout(5000)).findDtosAfterId(eq(0L), any());
+    }
+
+    private Document upserted(Long id) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(PatientRecordEntry.class));
+        assertEquals(id, query.getValue().getQueryObject().get("_id"));
+        return update.getValue().getUpdateObject().get("$set", Document.class);
+    }
+
+    private static OutboxMessage message(String type, Long id, String eventType, String payload) {
+        return new OutboxMessage(1L, type, id, eventType, payload, TIME);
+    }
+}
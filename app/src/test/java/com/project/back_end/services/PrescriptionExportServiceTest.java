@@ -0,0 +1,155 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.ArchivedAppointmentRepository;
+
+class PrescriptionExportServiceTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private MongoTemplate mongoTemplate;
+    private AppointmentRepository appointmentRepository;
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    private PrescriptionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        archivedAppointmentRepository = mock(ArchivedAppointmentRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new PrescriptionExportService(mongoTemplate, appointmentRepository,
+                archivedAppointmentRepository, objectMapper, 2);
+
+        // Termine 1-3 liegen in appointment, 4-5 nur noch im Archiv
+        when(appointmentRepository.findAppointmentTimesByIds(anyCollection()))
+                .thenAnswer(invocation -> rows(invocation.getArgument(0), 1L, 3L));
+        when(archivedAppointmentRepository.findAppointmentTimesByIds(anyCollection()))
+                .thenAnswer(invocation -> rows(invocation.getArgument(0), 4L, 5L));
+    }
+
+    @Test
+    void streamsCsvInBatchesWithOneLookupPerBatch() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Prescription.class)))
+                .thenReturn(IntStream.rangeClosed(1, 5).mapToObj(i -> prescription(i, "Take " + i + ", with \"water\"")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.export(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31),
+                PrescriptionExportService.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, count);
+        assertEquals(7, lines.size());
+        assertEquals("# export complete: 5 prescriptions", lines.get(6));
+        assertTrue(lines.get(1).endsWith(",1,2026-03-02T11:00,Jane Doe,Ibuprofen,400mg,\"Take 1, with \"\"water\"\"\""),
+                lines.get(1));
+        assertTrue(lines.get(5).contains(",5,2026-03-02T15:00,"), lines.get(5));
+        // Blöcke [1,2], [3,4], [5]: drei Abfragen auf appointment, das Archiv nur für die fehlenden Ids
+        verify(appointmentRepository, times(3)).findAppointmentTimesByIds(anyCollection());
+        verify(archivedAppointmentRepository).findAppointmentTimesByIds(List.of(4L));
+        verify(archivedAppointmentRepository).findAppointmentTimesByIds(List.of(5L));
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Prescription.class)))
+                .thenReturn(IntStream.rangeClosed(1, 3).mapToObj(i -> prescription(i, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31),
+                PrescriptionExportService.Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).contains("\"appointmentId\":1,\"appointmentTime\":\"2026-03-02T11:00:00\""),
+                lines.get(0));
+        assertEquals("{\"exportComplete\":true,\"count\":3}", lines.get(3));
+    }
+
+    @Test
+    void failureAfterFirstBatchLeavesNoTrailer() {
+        when(mongoTemplate.stream(any(Query.class), eq(Prescription.class)))
+                .thenReturn(IntStream.rangeClosed(1, 5).mapToObj(i -> {
+                    if (i == 4) {
+                        throw new IllegalStateException("cursor lost");
+                    }
+                    return prescription(i, null);
+                }));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IllegalStateException.class, () -> exportService.export(LocalDate.of(2026, 3, 1),
+                LocalDate.of(2026, 3, 31), PrescriptionExportService.Format.NDJSON, out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());   // erster Block ist schon beim Client, die Schlusszeile fehlt
+        assertFalse(lines.get(1).contains("exportComplete"));
+    }
+
+    @Test
+    void csvFieldsCannotStartAFormula() {
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", PrescriptionExportService.csvField("=HYPERLINK(\"http://x\")"));
+        assertEquals("'+1", PrescriptionExportService.csvField("+1"));
+        assertEquals("'-2+3", PrescriptionExportService.csvField("-2+3"));
+        assertEquals("'@SUM(A1)", PrescriptionExportService.csvField("@SUM(A1)"));
+        assertEquals("\"'\tcmd,x\"", PrescriptionExportService.csvField("\tcmd,x"));
+        assertEquals("Ibuprofen 400mg", PrescriptionExportService.csvField("Ibuprofen 400mg"));
+        assertEquals("a-b", PrescriptionExportService.csvField("a-b"));
+    }
+
+    @Test
+    void dateRangeBecomesObjectIdRange() {
+        ObjectId start = PrescriptionExportService.objectIdAt(LocalDate.of(2026, 3, 1));
+        assertEquals(LocalDate.of(2026, 3, 1).atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                start.getDate().toInstant());
+        assertTrue(start.toHexString().endsWith("0000000000000000"));
+    }
+
+    private static Prescription prescription(int appointmentId, String notes) {
+        Prescription prescription = new Prescription("Jane Doe", "Ibuprofen", "400mg", notes, (long) appointmentId);
+        prescription.setId(new ObjectId().toHexString());
+        return prescription;
+    }
+
+    private static List<Object[]> rows(Collection<Long> ids, long first, long last) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long id : ids) {
+            if (id >= first && id <= last) {
+                rows.add(new Object[] {id, TIME.plusHours(id)});
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.DeleteResult;
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+
+class PrescriptionServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final PrescriptionRepository prescriptionRepository = mock(PrescriptionRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final PrescriptionService prescriptionService = new PrescriptionService(prescriptionRepository,
+            mongoTemplate, outboxService, new ObjectMapper());
+
+    @Test
+    void doctorDeletedEventRemovesPrescriptionsOfItsAppointments() throws Exception {
+        when(mongoTemplate.remove(any(Query.class), eq(Prescription.class))).thenReturn(DeleteResult.acknowledged(2));
+
+        prescriptionService.publish(new OutboxMessage(1L, OutboxService.DOCTOR, 3L, "DELETED",
+                "{\"doctorId\":3,\"appointmentIds\":[11,12]}", LocalDateTime.now()));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(query.capture(), eq(Prescription.class));
+        assertEquals(appointmentIdIn(List.of(11L, 12L)), query.getValue().getQueryObject());
+    }
+
+    @Test
+    void deletesPrescriptionsInBlocksOfAppointmentIds() {
+        when(mongoTemplate.remove(any(Query.class), eq(Prescription.class))).thenReturn(DeleteResult.acknowledged(1));
+        List<Long> ids = LongStream.rangeClosed(1, 2 * PrescriptionService.DELETE_BATCH_SIZE + 1).boxed().toList();
+
+        assertEquals(3, prescriptionService.deleteByAppointmentIds(ids));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(3)).remove(queries.capture(), eq(Prescription.class));
+        int size = PrescriptionService.DELETE_BATCH_SIZE;
+        assertEquals(List.of(appointmentIdIn(ids.subList(0, size)), appointmentIdIn(ids.subList(size, 2 * size)),
+                appointmentIdIn(ids.subList(2 * size, ids.size()))),
+                queries.getAllValues().stream().map(Query::getQueryObject).toList());
+    }
+
+    @Test
+    void otherEventsAreIgnored() throws Exception {
+        prescriptionService.publish(new OutboxMessage(1L, OutboxService.APPOINTMENT, 3L, "CANCELED",
+                "{}", LocalDateTime.now()));
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Prescription.class));
+    }
+
+    @Test
+    void retryAfterLostEventRecordsItOnce() {
+        Prescription existing = new Prescription("Jane Doe", "Ibuprofen", "200mg", "", 7L);
+        existing.setId("p-1");
+        when(prescriptionRepository.findByAppointmentId(7L)).thenReturn(List.of(existing));
+
+        ResponseEntity<?> response = prescriptionService.savePrescription(
+                new Prescription("Jane Doe", "Ibuprofen", "200mg", "", 7L));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(prescriptionRepository, never()).save(any());
+        verify(outboxService).recordOnce(eq(OutboxService.PRESCRIPTION), eq(7L), eq("PRESCRIPTION_SAVED"), anyMap());
+    }
+
+    private static Document appointmentIdIn(List<Long> ids) {
+        return new Document("appointmentId", new Document("$in", ids));
+    }
+}
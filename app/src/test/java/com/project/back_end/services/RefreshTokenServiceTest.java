@@ -0,0 +1,98 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.project.back_end.models.RefreshToken;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.RefreshTokenRepository;
+
+class RefreshTokenServiceTest {
+
+    private static final String SECRET = "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M";
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private TokenService tokenService;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        AccountRevocationList revocationList = mock(AccountRevocationList.class);
+        tokenService = new TokenService(mock(AdminRepository.class), mock(DoctorRepository.class),
+                mock(PatientRepository.class), revocationList, SECRET, 900000L);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, tokenService, revocationList, 14);
+    }
+
+    @Test
+    void storesOnlyHashOfIssuedToken() {
+        String raw = refreshTokenService.issue("patient", 42L, "jane.doe@example.com");
+
+        RefreshToken stored = savedToken();
+        assertNotEquals(raw, stored.getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), stored.getTokenHash());
+        assertEquals("PATIENT", stored.getRole());
+    }
+
+    @Test
+    void rotationIssuesNewAccessAndRefreshToken() {
+        RefreshToken stored = stored("family-1");
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(1);
+
+        Map<String, String> tokens = refreshTokenService.rotate("raw", "patient");
+
+        assertTrue(tokenService.validateToken(tokens.get("token"), "patient"));
+        assertEquals(42L, tokenService.extractPatientId(tokens.get("token")));
+        assertEquals("family-1", savedToken().getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+    }
+
+    @Test
+    void reusedTokenRevokesWholeFamily() {
+        RefreshToken stored = stored("family-1");
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(any(), any())).thenReturn(0);
+
+        assertNull(refreshTokenService.rotate("raw", "patient"));
+        verify(refreshTokenRepository).revokeFamily("family-1");
+    }
+
+    @Test
+    void rejectsTokenOfOtherRole() {
+        RefreshToken stored = stored("family-1");
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+
+        assertNull(refreshTokenService.rotate("raw", "doctor"));
+        verify(refreshTokenRepository, never()).markUsed(anyLong(), any());
+    }
+
+    private static RefreshToken stored(String familyId) {
+        return new RefreshToken(RefreshTokenService.hash("raw"), familyId, "PATIENT", 42L, "jane.doe@example.com",
+                LocalDateTime.now().plusDays(1));
+    }
+
+    private RefreshToken savedToken() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
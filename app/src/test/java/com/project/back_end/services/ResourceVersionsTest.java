@@ -0,0 +1,58 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.ResourceVersion;
+import com.project.back_end.repo.ResourceVersionRepository;
+
+class ResourceVersionsTest {
+
+    private final ResourceVersionRepository repository = mock(ResourceVersionRepository.class);
+    private final ResourceVersions versions = new ResourceVersions(repository);
+
+    @Test
+    void etagFollowsTheSharedCounter() {
+        when(repository.findVersion(ResourceVersions.DOCTORS)).thenReturn(Optional.of(4L));
+        String doctors = versions.etag(ResourceVersions.DOCTORS);
+        assertEquals("W/\"doctors-4-7\"", versions.etag(ResourceVersions.DOCTORS, 7L));
+
+        // Schreibzugriff auf einer anderen Instanz
+        when(repository.findVersion(ResourceVersions.DOCTORS)).thenReturn(Optional.of(5L));
+
+        assertNotEquals(doctors, versions.etag(ResourceVersions.DOCTORS));
+    }
+
+    @Test
+    void bumpInsideTransactionIncrementsRightBeforeCommit() {
+        when(repository.increment(ResourceVersions.DOCTORS)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versions.bump(ResourceVersions.DOCTORS);
+            verify(repository, never()).increment(ResourceVersions.DOCTORS);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(repository).increment(ResourceVersions.DOCTORS);
+        verify(repository, never()).save(any(ResourceVersion.class));
+    }
+
+    @Test
+    void missingCounterIsCreated() {
+        versions.bump(ResourceVersions.APPOINTMENTS);
+
+        verify(repository).save(any(ResourceVersion.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.back_end.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.RevokedAccount;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.repo.RefreshTokenRepository;
+import com.project.back_end.repo.RevokedAccountRepository;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "$!@#$^%$$$%####$DDCPN0234FCFDPD8670M";
+
+    private DoctorRepository doctorRepository;
+    private RevokedAccountRepository revokedAccountRepository;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        revokedAccountRepository = mock(RevokedAccountRepository.class);
+        tokenService = new TokenService(mock(AdminRepository.class), doctorRepository, mock(PatientRepository.class),
+                new AccountRevocationList(revokedAccountRepository, mock(RefreshTokenRepository.class), 900000L),
+                SECRET, 900000L);
+    }
+
+    @Test
+    void tokenWithRoleClaimIsValidatedWithoutDatabase() {
+        String token = doctorToken(7L);
+
+        assertTrue(tokenService.validateToken(token, "doctor"));
+        assertFalse(tokenService.validateToken(token, "admin"));
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    void revokedAccountIsRejected() {
+        String token = doctorToken(7L);
+
+        tokenService.revokeAccount("DOCTOR", 7L);
+
+        assertFalse(tokenService.validateToken(token, "doctor"));
+        assertTrue(tokenService.validateToken(doctorToken(8L), "doctor"));
+        verify(revokedAccountRepository).save(any(RevokedAccount.class));
+    }
+
+    @Test
+    void revocationTakesEffectOnlyAfterCommit() {
+        AccountRevocationList revocationList = new AccountRevocationList(revokedAccountRepository,
+                mock(RefreshTokenRepository.class), 900000L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            revocationList.revoke("doctor", 7L);
+            assertFalse(revocationList.isRevoked("doctor", 7L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(revocationList.isRevoked("doctor", 7L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revocationsArePrunedAfterOneAccessTokenLifetime() {
+        AccountRevocationList revocationList = new AccountRevocationList(revokedAccountRepository,
+                mock(RefreshTokenRepository.class), 900000L);
+
+        revocationList.pruneExpired();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(revokedAccountRepository).deleteRevokedBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusMinutes(14)));
+        assertTrue(cutoff.getValue().isAfter(LocalDateTime.now().minusMinutes(16)));
+    }
+
+    @Test
+    void revocationsAreLoadedFromTable() {
+        AccountRevocationList revocationList = new AccountRevocationList(revokedAccountRepository,
+                mock(RefreshTokenRepository.class), 900000L);
+        when(revokedAccountRepository.findAll()).thenReturn(List.of(new RevokedAccount("DOCTOR", 7L, null)));
+
+        revocationList.refresh();
+
+        assertTrue(revocationList.isRevoked("doctor", 7L));
+        assertFalse(revocationList.isRevoked("patient", 7L));
+    }
+
+    @Test
+    void revocationDuringRefreshIsNotOverwritten() {
+        AccountRevocationList revocationList = new AccountRevocationList(revokedAccountRepository,
+                mock(RefreshTokenRepository.class), 900000L);
+        // Sperrung wird übernommen, während refresh() den älteren Tabellenstand liest
+        when(revokedAccountRepository.findAll()).thenAnswer(invocation -> {
+            revocationList.revoke("doctor", 7L);
+            return List.of();
+        });
+
+        revocationList.refresh();
+
+        assertTrue(revocationList.isRevoked("doctor", 7L));
+    }
+
+    @Test
+    void legacyTokenWithoutRoleFallsBackToLookup() {
+        when(doctorRepository.findByEmail("dr@example.com")).thenReturn(Optional.of(new Doctor()));
+
+        assertTrue(tokenService.validateToken(tokenService.generateToken("dr@example.com"), "doctor"));
+        assertFalse(tokenService.validateToken(tokenService.generateToken("other@example.com"), "doctor"));
+    }
+
+    private String doctorToken(long doctorId) {
+        return tokenService.generateToken("dr@example.com", TokenService.claimsFor("DOCTOR", doctorId));
+    }
+}